@@ -0,0 +1,104 @@
+package com.github.popularityscore.client;
+
+import com.github.popularityscore.exception.GitHubException;
+import com.github.popularityscore.model.GitHubGraphQlResponse;
+import com.github.popularityscore.model.GitHubRepositoryData;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.*;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Fetches current stats for already-known repositories through the GitHub GraphQL API.
+ * Up to {@link #MAX_BATCH_SIZE} repositories are resolved per call, each as an aliased
+ * {@code repository(owner, name)} selection. Field aliases reuse the REST names so the
+ * nodes bind straight into {@link GitHubRepositoryData}; {@code primaryLanguage { name }}
+ * becomes its language.
+ */
+@Slf4j
+@Component
+public class GraphQlStatsClient {
+
+    public static final int MAX_BATCH_SIZE = 100;
+
+    private static final String SELECTION =
+            "{ name full_name: nameWithOwner html_url: url stargazers_count: stargazerCount forks_count: forkCount"
+                    + " updated_at: updatedAt primaryLanguage { name } }";
+
+    private final RestTemplate restTemplate = new RestTemplate();
+    private final URI graphQlUri;
+    private final String token;
+
+    public GraphQlStatsClient(
+            @Value("${github.api.graphql-url:https://api.github.com/graphql}") String graphQlUrl,
+            @Value("${github.api.token:}") String token) {
+        this.graphQlUri = URI.create(graphQlUrl);
+        this.token = token;
+    }
+
+    /**
+     * Resolves one batch of "owner/name" identifiers. Repositories GitHub cannot resolve
+     * (renamed, deleted, private) are skipped.
+     */
+    public List<GitHubRepositoryData> fetchStats(List<String> fullNames) {
+        if (fullNames == null || fullNames.isEmpty()) return List.of();
+        if (fullNames.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("At most " + MAX_BATCH_SIZE + " repositories per GraphQL call, got " + fullNames.size());
+        }
+
+        StringBuilder declarations = new StringBuilder();
+        StringBuilder selections = new StringBuilder();
+        Map<String, Object> variables = new LinkedHashMap<>();
+        for (int i = 0; i < fullNames.size(); i++) {
+            String[] ownerAndName = fullNames.get(i).split("/", 2);
+            if (i > 0) declarations.append(", ");
+            declarations.append("$o").append(i).append(": String!, $n").append(i).append(": String!");
+            selections.append("  r").append(i).append(": repository(owner: $o").append(i)
+                    .append(", name: $n").append(i).append(") ").append(SELECTION).append('\n');
+            variables.put("o" + i, ownerAndName[0]);
+            variables.put("n" + i, ownerAndName[1]);
+        }
+        String query = "query(" + declarations + ") {\n" + selections + "}";
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+        if (token != null && !token.isBlank()) {
+            headers.setBearerAuth(token);
+        }
+
+        GitHubGraphQlResponse body;
+        try {
+            ResponseEntity<GitHubGraphQlResponse> response = restTemplate.exchange(
+                    graphQlUri,
+                    HttpMethod.POST,
+                    new HttpEntity<>(Map.of("query", query, "variables", variables), headers),
+                    GitHubGraphQlResponse.class
+            );
+            body = response.getBody();
+        } catch (Exception e) {
+            throw new GitHubException(e.getMessage(), e.getCause());
+        }
+
+        if (body == null || body.getData() == null) {
+            throw new GitHubException("GitHub GraphQL returned no data: " + (body == null ? null : body.getErrors()));
+        }
+        if (body.getErrors() != null && !body.getErrors().isEmpty()) {
+            log.warn("GitHub GraphQL partial errors for {} repositories: {}", body.getErrors().size(), body.getErrors());
+        }
+        List<GitHubRepositoryData> result = new ArrayList<>(body.getData().size());
+        body.getData().values().stream()
+                .filter(Objects::nonNull)
+                .map(GitHubGraphQlResponse.RepositoryNode::toRepositoryData)
+                .forEach(result::add);
+        return result;
+    }
+}
@@ -1,19 +1,27 @@
 package com.github.popularityscore.client;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.popularityscore.diagnostics.JsonDecodeEvent;
+import com.github.popularityscore.diagnostics.UpstreamSearchEvent;
 import com.github.popularityscore.exception.GitHubException;
 import com.github.popularityscore.model.GitHubSearchResponse;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import java.io.IOException;
 import java.net.URI;
 
 @Component
 public class RestTemplateClient {
 
     private final RestTemplate restTemplate = new RestTemplate();
+    // same configuration as RestTemplate's default Jackson converter
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
     private final String baseUrl;
     private final String apiVersion;
 
@@ -25,6 +33,8 @@ public class RestTemplateClient {
     }
 
     public GitHubSearchResponse searchRepositories(String query, int page, int perPage) {
+        UpstreamSearchEvent event = new UpstreamSearchEvent();
+        event.begin();
         System.out.println(baseUrl);
         System.out.println(query);
         try {
@@ -44,18 +54,44 @@ public class RestTemplateClient {
             headers.set("X-GitHub-Api-Version", apiVersion);
             headers.set(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
 
-            HttpEntity<Void> entity = new HttpEntity<>(headers);
-            ResponseEntity<GitHubSearchResponse> response = restTemplate.exchange(
+            // body is read fully before decoding, so JFR shows network and decode time separately
+            return restTemplate.execute(
                     uri,
                     HttpMethod.GET,
-                    entity,
-                    GitHubSearchResponse.class
+                    request -> request.getHeaders().putAll(headers),
+                    response -> decode(query, response, event)
             );
-            return response.getBody();
         } catch (Exception e) {
             throw new GitHubException(e.getMessage(), e.getCause());
+        } finally {
+            if (event.shouldCommit()) {
+                event.query = query;
+                event.page = page;
+                event.perPage = perPage;
+                event.commit();
+            }
         }
     }
+
+    private GitHubSearchResponse decode(String query, ClientHttpResponse response, UpstreamSearchEvent upstream) throws IOException {
+        upstream.status = response.getStatusCode().value();
+        byte[] body = response.getBody().readAllBytes();
+        upstream.bytes = body.length;
+        if (body.length == 0) return null;
+
+        JsonDecodeEvent event = new JsonDecodeEvent();
+        event.begin();
+        GitHubSearchResponse decoded = objectMapper.readValue(body, GitHubSearchResponse.class);
+        int items = decoded.getItems() == null ? 0 : decoded.getItems().size();
+        upstream.itemCount = items;
+        if (event.shouldCommit()) {
+            event.query = query;
+            event.bytes = body.length;
+            event.itemCount = items;
+            event.commit();
+        }
+        return decoded;
+    }
 }
 
 
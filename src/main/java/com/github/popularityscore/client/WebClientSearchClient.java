@@ -0,0 +1,60 @@
+package com.github.popularityscore.client;
+
+import com.github.popularityscore.exception.GitHubException;
+import com.github.popularityscore.exception.GitHubTimeoutException;
+import com.github.popularityscore.model.GitHubSearchResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Non-blocking counterpart of {@link RestTemplateClient}: no thread is held while
+ * GitHub answers, so the async endpoint scales with in-flight requests, not with threads.
+ */
+@Component
+public class WebClientSearchClient {
+
+    private static final int MAX_RESPONSE_BYTES = 16 * 1024 * 1024; // 100 items with all GitHub fields exceed the 256KB default
+
+    private final WebClient webClient;
+    private final String baseUrl;
+
+    public WebClientSearchClient(
+            WebClient.Builder builder,
+            @Value("${github.api.base-url:https://api.github.com}") String baseUrl,
+            @Value("${github.api.version:2022-11-28}") String apiVersion) {
+        this.baseUrl = baseUrl;
+        this.webClient = builder
+                .defaultHeader(HttpHeaders.ACCEPT, "application/vnd.github+json")
+                .defaultHeader("X-GitHub-Api-Version", apiVersion)
+                .codecs(c -> c.defaultCodecs().maxInMemorySize(MAX_RESPONSE_BYTES))
+                .build();
+    }
+
+    public Mono<GitHubSearchResponse> searchRepositories(String query, int page, int perPage, Duration timeout) {
+        URI uri = UriComponentsBuilder.fromHttpUrl(baseUrl)
+                .path("/search/repositories")
+                .queryParam("q", query)
+                .queryParam("sort", "stars")
+                .queryParam("order", "desc")
+                .queryParam("page", page)
+                .queryParam("per_page", perPage)
+                .build().toUri();
+
+        return webClient.get()
+                .uri(uri)
+                .retrieve()
+                .bodyToMono(GitHubSearchResponse.class)
+                .timeout(timeout)
+                .onErrorMap(TimeoutException.class,
+                        e -> new GitHubTimeoutException("GitHub search did not answer within " + timeout.toMillis() + " ms", e))
+                .onErrorMap(e -> !(e instanceof GitHubException), e -> new GitHubException(e.getMessage(), e.getCause()));
+    }
+}
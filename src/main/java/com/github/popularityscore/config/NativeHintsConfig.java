@@ -0,0 +1,33 @@
+package com.github.popularityscore.config;
+
+import com.github.popularityscore.exception.ExceptionResponse;
+import com.github.popularityscore.model.GitHubGraphQlResponse;
+import com.github.popularityscore.model.GitHubRepositoryData;
+import com.github.popularityscore.model.GitHubSearchResponse;
+import com.github.popularityscore.model.OwnerLeaderboardResponse;
+import com.github.popularityscore.model.PopularityScoreResponse;
+import com.github.popularityscore.model.RecordingResponse;
+import com.github.popularityscore.model.ScoringProfile;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Reflection hints for the native image build (-Pnative).
+ * Jackson binds these types reflectively; AOT cannot discover them because
+ * they only appear as RestTemplate / controller generic types.
+ */
+@Configuration
+@RegisterReflectionForBinding({
+        GitHubSearchResponse.class,
+        GitHubGraphQlResponse.class,
+        GitHubGraphQlResponse.RepositoryNode.class,
+        GitHubGraphQlResponse.Language.class,
+        GitHubRepositoryData.class,
+        PopularityScoreResponse.class,
+        OwnerLeaderboardResponse.class,
+        RecordingResponse.class,
+        ScoringProfile.class,
+        ExceptionResponse.class
+})
+public class NativeHintsConfig {
+}
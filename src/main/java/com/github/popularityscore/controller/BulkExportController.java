@@ -0,0 +1,140 @@
+package com.github.popularityscore.controller;
+
+import com.github.popularityscore.enums.GitHubLanguage;
+import com.github.popularityscore.service.BulkExportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.zip.GZIPOutputStream;
+
+@Slf4j
+@RequestMapping(path = "/api/v1/repo")
+@RestController
+@Validated
+@Tag(name="Github Popularity Score Manager", description = "APIs for getting popularity score for each repositories")
+public class BulkExportController {
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final MediaType CSV = MediaType.parseMediaType("text/csv");
+    private static final String EXPORT_TIMEOUT = BulkExportController.class.getName() + ".timeout";
+
+    private final BulkExportService bulkExportService;
+    private final long exportTimeoutMs;
+
+    public BulkExportController(BulkExportService bulkExportService,
+                                @Value("${popularity.export.timeout-ms:3600000}") long exportTimeoutMs) {
+        this.bulkExportService = bulkExportService;
+        this.exportTimeoutMs = exportTimeoutMs;
+    }
+
+    @GetMapping(path = "/export", produces = {"application/x-ndjson", "text/csv"})
+    @Operation(operationId = "exportScoredRepositories", summary = "Stream every stored scored repository of a language", description = """
+            Streams all repositories of the language scored by this instance, in ranking order, as NDJSON
+            or CSV (chunked; gzip-compressed when the client sends Accept-Encoding: gzip). Makes no GitHub call.
+            Each row has a cursor: after an interrupted transfer, pass the last received row's cursor to resume.
+            Streams for at most popularity.export.timeout-ms, not the general async request timeout.
+            """)
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam("language") @Parameter(
+                                                                description = "GitHub Programming Language (case-insensitive)",
+                                                                schema = @Schema(implementation = GitHubLanguage.class)) GitHubLanguage language,
+                                                        @RequestParam(name = "format", defaultValue = "NDJSON") @Parameter(description = "NDJSON or CSV")
+                                                        BulkExportService.Format format,
+                                                        @RequestParam(name = "updated_after", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+                                                        @Parameter(description = "Only repositories updated on or after this date (YYYY-MM-DD)") LocalDate updatedAfter,
+                                                        @RequestParam(name = "updated_before", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+                                                        @Parameter(description = "Only repositories updated before this date (YYYY-MM-DD)") LocalDate updatedBefore,
+                                                        @RequestParam(name = "cursor", required = false) @Parameter(description = "Resume after the row with this cursor")
+                                                        String cursor,
+                                                        @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                                        HttpServletRequest request) {
+        // validated before the response is committed, so a bad cursor still gets a 400
+        BulkExportService.Cursor resumeAfter = BulkExportService.decode(cursor);
+        boolean gzip = acceptsGzip(acceptEncoding);
+        String languageName = language.getDisplayName();
+        useExportTimeout(request);
+
+        StreamingResponseBody body = out -> {
+            OutputStream target = gzip ? new GZIPOutputStream(out, 64 * 1024, true) : out;
+            long rows = bulkExportService.export(languageName,
+                    updatedAfter == null ? null : updatedAfter.toString(),
+                    updatedBefore == null ? null : updatedBefore.toString(),
+                    resumeAfter, format, target);
+            if (gzip) ((GZIPOutputStream) target).finish();
+            log.debug("Exported {} {} rows as {}", rows, languageName, format);
+        };
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(format == BulkExportService.Format.CSV ? CSV : NDJSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        return response.body(body);
+    }
+
+    /**
+     * A streaming body runs under spring.mvc.async.request-timeout, which would cut a long export
+     * short. The async request is handed to callable interceptors before it starts, so its
+     * timeout is replaced there (0: no limit).
+     */
+    private void useExportTimeout(HttpServletRequest request) {
+        WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(EXPORT_TIMEOUT, new CallableProcessingInterceptor() {
+            @Override
+            public <T> void beforeConcurrentHandling(NativeWebRequest asyncRequest, Callable<T> task) {
+                if (asyncRequest instanceof AsyncWebRequest async) async.setTimeout(exportTimeoutMs);
+            }
+        });
+    }
+
+    /**
+     * True when the Accept-Encoding header accepts gzip: listed (or covered by "*") with a
+     * non-zero q-value. "gzip;q=0" refuses it; a malformed q-value counts as 0.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) return false;
+        Double gzip = null;
+        Double any = null;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim().toLowerCase(Locale.ROOT);
+            double q = 1.0;
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim().toLowerCase(Locale.ROOT);
+                if (!param.startsWith("q=")) continue;
+                try {
+                    q = Double.parseDouble(param.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    q = 0.0;
+                }
+            }
+            if (name.equals("gzip") || name.equals("x-gzip")) {
+                gzip = q;
+            } else if (name.equals("*")) {
+                any = q;
+            }
+        }
+        double q = gzip != null ? gzip : any != null ? any : 0.0;
+        return q > 0.0;
+    }
+}
@@ -0,0 +1,72 @@
+package com.github.popularityscore.controller;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import com.github.popularityscore.model.PopularityScoreResponse;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJacksonResponseBodyAdvice;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Applies the optional {@code fields} query parameter (e.g. {@code fields=fullName,normalizedScore})
+ * to {@link PopularityScoreResponse} bodies. Works for every Jackson converter (JSON, CBOR, Smile),
+ * so unrequested properties are never serialized.
+ *
+ * The filter is attached through a mix-in on a mapper private to this advice, so the model and the
+ * shared converters know nothing about projection. Requests without {@code fields} are untouched.
+ */
+@RestControllerAdvice(assignableTypes = PopularityScoreController.class)
+public class FieldProjectionAdvice extends AbstractMappingJacksonResponseBodyAdvice {
+
+    static final String FIELDS_PARAM = "fields";
+    static final String PROJECTION_FILTER = "popularityScoreProjection";
+
+    @JsonFilter(PROJECTION_FILTER)
+    abstract static class ProjectionMixin {
+    }
+
+    private final ObjectMapper projectionMapper;
+
+    public FieldProjectionAdvice(Jackson2ObjectMapperBuilder builder) {
+        this.projectionMapper = builder.mixIn(PopularityScoreResponse.class, ProjectionMixin.class).build();
+    }
+
+    @Override
+    protected void beforeBodyWriteInternal(MappingJacksonValue bodyContainer, MediaType contentType,
+                                           MethodParameter returnType, ServerHttpRequest request,
+                                           ServerHttpResponse response) {
+        if (!(request instanceof ServletServerHttpRequest servletRequest)) return;
+        String fields = servletRequest.getServletRequest().getParameter(FIELDS_PARAM);
+        if (fields == null || fields.isBlank()) return;
+
+        Set<String> selected = Arrays.stream(fields.split(","))
+                .map(String::trim)
+                .filter(f -> !f.isEmpty())
+                .collect(Collectors.toSet());
+        SimpleFilterProvider filters = new SimpleFilterProvider()
+                .addFilter(PROJECTION_FILTER, SimpleBeanPropertyFilter.filterOutAllExcept(selected));
+        // projected into a token stream (no text round trip) that the negotiated converter then encodes
+        try {
+            TokenBuffer projected = new TokenBuffer(projectionMapper, false);
+            projectionMapper.writer(filters).writeValue(projected, bodyContainer.getValue());
+            bodyContainer.setValue(projectionMapper.readTree(projected.asParser()));
+        } catch (IOException e) {
+            throw new HttpMessageNotWritableException("Could not project response fields", e);
+        }
+    }
+}
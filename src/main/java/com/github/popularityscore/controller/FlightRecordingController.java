@@ -0,0 +1,92 @@
+package com.github.popularityscore.controller;
+
+import com.github.popularityscore.diagnostics.FlightRecordingService;
+import com.github.popularityscore.model.RecordingResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+@Slf4j
+@RequestMapping(path = "/api/v1/admin/recordings")
+@RestController
+@Validated
+@ConditionalOnProperty(value = "app.diagnostics.recordings.enabled", havingValue = "true")
+@Tag(name = "Diagnostics", description = "JDK Flight Recorder recordings of live traffic")
+public class FlightRecordingController {
+
+    private final FlightRecordingService flightRecordingService;
+
+    public FlightRecordingController(FlightRecordingService flightRecordingService) {
+        this.flightRecordingService = flightRecordingService;
+    }
+
+    @PostMapping
+    @Operation(operationId = "startRecording", summary = "Start a bounded JFR recording", description = """
+            Starts a recording that stops by itself after durationSeconds (capped by
+            app.diagnostics.recordings.max-duration-seconds) and keeps at most maxSizeMb on disk.
+            Search requests, upstream calls, JSON decoding and scoring are recorded as custom events.
+            """)
+    public RecordingResponse start(@RequestParam(name = "settings", defaultValue = "DEFAULT") @Parameter(description = "DEFAULT (~1% overhead) or PROFILE") FlightRecordingService.Settings settings,
+                                   @RequestParam(name = "durationSeconds", defaultValue = "60") @Parameter(description = "Automatic stop after this many seconds") long durationSeconds,
+                                   @RequestParam(name = "maxSizeMb", required = false) @Parameter(description = "Size bound on disk (MB)") Long maxSizeMb) {
+        return flightRecordingService.start(settings, Duration.ofSeconds(Math.max(1, durationSeconds)), maxSizeMb);
+    }
+
+    @GetMapping
+    @Operation(operationId = "listRecordings", summary = "List recordings")
+    public List<RecordingResponse> list() {
+        return flightRecordingService.list();
+    }
+
+    @PostMapping("/{id}/stop")
+    @Operation(operationId = "stopRecording", summary = "Stop a running recording")
+    public RecordingResponse stop(@PathVariable("id") long id) {
+        return flightRecordingService.stop(id);
+    }
+
+    @GetMapping(path = "/{id}", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    @Operation(operationId = "downloadRecording", summary = "Download a recording as a .jfr file", description = """
+            A running recording is dumped as of now and keeps running. Open the file in JDK Mission Control
+            or with `jfr print --events com.github.popularityscore.SearchRequest <file>`.
+            """)
+    public ResponseEntity<StreamingResponseBody> download(@PathVariable("id") long id) {
+        Path file = flightRecordingService.dump(id);
+        StreamingResponseBody body = out -> {
+            try {
+                Files.copy(file, out);
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        };
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"recording-" + id + ".jfr\"")
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .body(body);
+    }
+
+    @DeleteMapping("/{id}")
+    @Operation(operationId = "deleteRecording", summary = "Close a recording and discard its data")
+    public ResponseEntity<Void> delete(@PathVariable("id") long id) {
+        flightRecordingService.delete(id);
+        return ResponseEntity.noContent().build();
+    }
+}
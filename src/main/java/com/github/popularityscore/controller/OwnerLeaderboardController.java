@@ -0,0 +1,60 @@
+package com.github.popularityscore.controller;
+
+import com.github.popularityscore.enums.GitHubLanguage;
+import com.github.popularityscore.exception.InvalidDateException;
+import com.github.popularityscore.model.OwnerLeaderboardResponse;
+import com.github.popularityscore.service.OwnerLeaderboardService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Slf4j
+@RequestMapping(path = "/api/v1/repo")
+@RestController
+@Validated
+@Tag(name="Github Popularity Score Manager", description = "APIs for getting popularity score for each repositories")
+public class OwnerLeaderboardController {
+
+    private final OwnerLeaderboardService ownerLeaderboardService;
+
+    public OwnerLeaderboardController(OwnerLeaderboardService ownerLeaderboardService) {
+        this.ownerLeaderboardService = ownerLeaderboardService;
+    }
+
+    @GetMapping(path = "/ownerLeaderboard", produces = {
+            MediaType.APPLICATION_JSON_VALUE,
+            MediaType.APPLICATION_CBOR_VALUE,
+            "application/x-jackson-smile"})
+    @Operation(operationId = "getOwnerLeaderboard", summary = "Rank repository owners (users and organizations)", description = """
+            Aggregates the raw scores of the repositories scored by this instance by owner (the part of
+            fullName before '/'), as SUM or MAX. Without a language, all stored repositories are aggregated.
+            If nothing of the language is stored yet and created_after is given, that search is run first.
+            """)
+    public List<OwnerLeaderboardResponse> getOwnerLeaderboard(@RequestParam(name = "language", required = false) @Parameter(
+                                                                      description = "GitHub Programming Language (case-insensitive); all languages when omitted",
+                                                                      schema = @Schema(implementation = GitHubLanguage.class)) GitHubLanguage language,
+                                                              @RequestParam(name = "created_after", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+                                                              @Parameter(description = "Search to run when nothing is stored for the language (YYYY-MM-DD)")
+                                                              LocalDate createdAfter,
+                                                              @RequestParam(name = "aggregate", defaultValue = "SUM") @Parameter(description = "SUM or MAX of repository scores")
+                                                              OwnerLeaderboardService.Aggregate aggregate,
+                                                              @RequestParam(name = "limit", defaultValue = "100") @Parameter(description = "Maximum number of owners") int limit) {
+        if (createdAfter != null && createdAfter.isAfter(LocalDate.now())) {
+            throw new InvalidDateException("Parameter 'created_after' cannot be greater than today's date (" + LocalDate.now() + ").");
+        }
+        return ownerLeaderboardService.leaderboard(language == null ? null : language.getDisplayName(),
+                createdAfter == null ? null : createdAfter.toString(), aggregate, Math.max(0, limit));
+    }
+}
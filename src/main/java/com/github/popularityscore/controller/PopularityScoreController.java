@@ -4,20 +4,25 @@ import com.github.popularityscore.enums.GitHubLanguage;
 import com.github.popularityscore.exception.InvalidDateException;
 import com.github.popularityscore.model.PopularityScoreResponse;
 import com.github.popularityscore.service.RepositorySearchService;
+import com.github.popularityscore.service.ScoringProfileRegistry;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @Slf4j
 @RequestMapping(path = "/api/v1/repo")
@@ -27,17 +32,26 @@ import java.util.List;
 public class PopularityScoreController {
 
     private final RepositorySearchService repositorySearchService;
+    private final ScoringProfileRegistry scoringProfileRegistry;
 
-    public PopularityScoreController(RepositorySearchService repositorySearchService) {
+    public PopularityScoreController(RepositorySearchService repositorySearchService,
+                                     ScoringProfileRegistry scoringProfileRegistry) {
         this.repositorySearchService = repositorySearchService;
+        this.scoringProfileRegistry = scoringProfileRegistry;
     }
 
-    @GetMapping("/popularityScore")
+    @GetMapping(path = "/popularityScore", produces = {
+            MediaType.APPLICATION_JSON_VALUE,
+            MediaType.APPLICATION_CBOR_VALUE,
+            "application/x-jackson-smile"})
     @Operation(operationId = "getPopularityScore", summary = "Get popularity score for each github repositories", description = """
             Retrieves GitHub repositories created after a given date and sorted by stars.
             Note: GitHub API limits total search results to 1000 records
             (page × per_page ≤ 1000).
+            Encoding is negotiated via Accept: application/json (default), application/cbor, application/x-jackson-smile.
             """)
+    @Parameter(name = "fields", in = ParameterIn.QUERY,
+            description = "Comma-separated response fields to include (e.g., fullName,normalizedScore); all fields when omitted")
     public List<PopularityScoreResponse> getPopularityScore(@RequestParam("language") @Parameter(
                                                                         description = "GitHub Programming Language (case-insensitive)",
                                                                         schema = @Schema(implementation = GitHubLanguage.class)) GitHubLanguage language,
@@ -45,11 +59,85 @@ public class PopularityScoreController {
                                                             @Parameter(description = "Earliest created date in YYYY-MM-DD format (e.g., 2024-01-01)")
                                                             LocalDate createdAfter,
                                                             @RequestParam(name = "page", defaultValue = "10") @Parameter(description = "Page number (page × per_page ≤ 1000 for GitHub API)") int page,
-                                                            @RequestParam(name = "perPage", defaultValue = "100") @Parameter(description = "Results per page (max 100, page × per_page ≤ 1000 for GitHub API)") int perPage) {
+                                                            @RequestParam(name = "perPage", defaultValue = "100") @Parameter(description = "Results per page (max 100, page × per_page ≤ 1000 for GitHub API)") int perPage,
+                                                            @RequestParam(name = ScoringProfileRegistry.PROFILE_PARAM, required = false) @Parameter(description = "Scoring profile to rank with (see /api/v1/scoring/profiles); the default profile when omitted") String profile) {
         // Validate the date
         if (createdAfter.isAfter(LocalDate.now())) {
             throw new InvalidDateException("Parameter 'created_after' cannot be greater than today's date (" + LocalDate.now() + ").");
         }
-        return repositorySearchService.search(language.getDisplayName(), createdAfter.toString(), page, perPage);
+        return repositorySearchService.search(language.getDisplayName(), createdAfter.toString(), page, perPage,
+                scoringProfileRegistry.resolve(profile));
+    }
+
+    @GetMapping(path = "/popularityScore/async", produces = {
+            MediaType.APPLICATION_JSON_VALUE,
+            MediaType.APPLICATION_CBOR_VALUE,
+            "application/x-jackson-smile"})
+    @Operation(operationId = "getPopularityScoreAsync", summary = "Get popularity score for each github repositories (non-blocking)", description = """
+            Same result as /popularityScore, but the servlet thread is released while GitHub answers.
+            The upstream call is bounded by timeoutMs (default github.api.timeout-ms); on expiry the response is 504.
+            """)
+    @Parameter(name = "fields", in = ParameterIn.QUERY,
+            description = "Comma-separated response fields to include (e.g., fullName,normalizedScore); all fields when omitted")
+    public CompletableFuture<List<PopularityScoreResponse>> getPopularityScoreAsync(@RequestParam("language") @Parameter(
+                                                                                            description = "GitHub Programming Language (case-insensitive)",
+                                                                                            schema = @Schema(implementation = GitHubLanguage.class)) GitHubLanguage language,
+                                                                                    @RequestParam("created_after") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+                                                                                    @Parameter(description = "Earliest created date in YYYY-MM-DD format (e.g., 2024-01-01)")
+                                                                                    LocalDate createdAfter,
+                                                                                    @RequestParam(name = "page", defaultValue = "10") @Parameter(description = "Page number (page × per_page ≤ 1000 for GitHub API)") int page,
+                                                                                    @RequestParam(name = "perPage", defaultValue = "100") @Parameter(description = "Results per page (max 100, page × per_page ≤ 1000 for GitHub API)") int perPage,
+                                                                                    @RequestParam(name = "timeoutMs", required = false) @Parameter(description = "Upstream timeout in milliseconds for this request") Long timeoutMs,
+                                                                                    @RequestParam(name = ScoringProfileRegistry.PROFILE_PARAM, required = false) @Parameter(description = "Scoring profile to rank with (see /api/v1/scoring/profiles); the default profile when omitted") String profile) {
+        if (createdAfter.isAfter(LocalDate.now())) {
+            throw new InvalidDateException("Parameter 'created_after' cannot be greater than today's date (" + LocalDate.now() + ").");
+        }
+        Duration timeout = timeoutMs != null && timeoutMs > 0 ? Duration.ofMillis(timeoutMs) : null;
+        return repositorySearchService.searchAsync(language.getDisplayName(), createdAfter.toString(), page, perPage, timeout,
+                scoringProfileRegistry.resolve(profile));
+    }
+
+    @GetMapping(path = "/popularityScore/all", produces = {
+            MediaType.APPLICATION_JSON_VALUE,
+            MediaType.APPLICATION_CBOR_VALUE,
+            "application/x-jackson-smile"})
+    @Operation(operationId = "getFullPopularityRanking", summary = "Get the complete popularity ranking for a language", description = """
+            Enumerates every GitHub repository of the language created after the given date, beyond the
+            1000-result search cap, by splitting the created date range into windows of at most 1000 results.
+            Scores are normalized across the whole result set.
+            """)
+    @Parameter(name = "fields", in = ParameterIn.QUERY,
+            description = "Comma-separated response fields to include (e.g., fullName,normalizedScore); all fields when omitted")
+    public List<PopularityScoreResponse> getFullPopularityRanking(@RequestParam("language") @Parameter(
+                                                                              description = "GitHub Programming Language (case-insensitive)",
+                                                                              schema = @Schema(implementation = GitHubLanguage.class)) GitHubLanguage language,
+                                                                  @RequestParam("created_after") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+                                                                  @Parameter(description = "Earliest created date in YYYY-MM-DD format (e.g., 2024-01-01)")
+                                                                  LocalDate createdAfter,
+                                                                  @RequestParam(name = ScoringProfileRegistry.PROFILE_PARAM, required = false) @Parameter(description = "Scoring profile to rank with (see /api/v1/scoring/profiles); the default profile when omitted") String profile) {
+        if (createdAfter.isAfter(LocalDate.now())) {
+            throw new InvalidDateException("Parameter 'created_after' cannot be greater than today's date (" + LocalDate.now() + ").");
+        }
+        return repositorySearchService.searchAll(language.getDisplayName(), createdAfter.toString(),
+                scoringProfileRegistry.resolve(profile));
+    }
+
+    @GetMapping(path = "/popularityScore/stored", produces = {
+            MediaType.APPLICATION_JSON_VALUE,
+            MediaType.APPLICATION_CBOR_VALUE,
+            "application/x-jackson-smile"})
+    @Operation(operationId = "getStoredPopularityRanking", summary = "Get the locally stored ranking for a language", description = """
+            Ranks repositories already scored by this instance, including updates applied from pushed
+            repository events. Makes no GitHub call.
+            """)
+    @Parameter(name = "fields", in = ParameterIn.QUERY,
+            description = "Comma-separated response fields to include (e.g., fullName,normalizedScore); all fields when omitted")
+    public List<PopularityScoreResponse> getStoredPopularityRanking(@RequestParam("language") @Parameter(
+                                                                                description = "GitHub Programming Language (case-insensitive)",
+                                                                                schema = @Schema(implementation = GitHubLanguage.class)) GitHubLanguage language,
+                                                                    @RequestParam(name = "limit", defaultValue = "100") @Parameter(description = "Maximum number of repositories") int limit,
+                                                                    @RequestParam(name = ScoringProfileRegistry.PROFILE_PARAM, required = false) @Parameter(description = "Scoring profile to rank with (see /api/v1/scoring/profiles); the default profile when omitted") String profile) {
+        return repositorySearchService.searchStored(language.getDisplayName(), Math.max(0, limit),
+                scoringProfileRegistry.resolve(profile));
     }
 }
@@ -0,0 +1,58 @@
+package com.github.popularityscore.controller;
+
+import com.github.popularityscore.service.RepositoryEventService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.util.Map;
+
+@Slf4j
+@RequestMapping(path = "/api/v1/events")
+@RestController
+@Validated
+@Tag(name="Repository Events", description = "Push-based ingestion of GitHub repository events")
+public class RepositoryEventController {
+
+    private final RepositoryEventService repositoryEventService;
+
+    public RepositoryEventController(RepositoryEventService repositoryEventService) {
+        this.repositoryEventService = repositoryEventService;
+    }
+
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    @Operation(operationId = "ingestEvent", summary = "Ingest a GitHub webhook event (star, watch, fork, push)", description = """
+            Buffers the event; deltas are coalesced per repository and applied in batches
+            (popularity.events.apply-interval-ms). Only repositories already scored by this instance are updated.
+            """)
+    public Map<String, Object> ingest(@RequestHeader("X-GitHub-Event") String eventType,
+                                      @RequestHeader(name = "X-Hub-Signature-256", required = false) String signature,
+                                      @RequestBody byte[] body) {
+        return Map.of("accepted", repositoryEventService.accept(eventType, body, signature));
+    }
+
+    @PostMapping(path = "/replay", consumes = "application/x-ndjson")
+    @Operation(operationId = "replayEvents", summary = "Replay recorded events (NDJSON)", description = """
+            One event per line: {"event": "star", "payload": {...}}. Applies the buffered deltas
+            immediately unless apply=false. Lines carry no signature, so this endpoint needs the admin role.
+            """)
+    public Map<String, Object> replay(HttpServletRequest request,
+                                      @RequestParam(name = "apply", defaultValue = "true") boolean apply) throws IOException {
+        int accepted = repositoryEventService.replay(request.getReader());
+        int rescored = apply ? repositoryEventService.applyPending() : 0;
+        return Map.of("accepted", accepted, "rescored", rescored);
+    }
+}
@@ -0,0 +1,45 @@
+package com.github.popularityscore.controller;
+
+import com.github.popularityscore.model.PopularityScoreResponse;
+import com.github.popularityscore.service.RepositoryRefreshService;
+import com.github.popularityscore.service.ScoringProfileRegistry;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@Slf4j
+@RequestMapping(path = "/api/v1/repo")
+@RestController
+@Validated
+@Tag(name="Github Popularity Score Manager", description = "APIs for getting popularity score for each repositories")
+public class RepositoryRefreshController {
+
+    private final RepositoryRefreshService repositoryRefreshService;
+    private final ScoringProfileRegistry scoringProfileRegistry;
+
+    public RepositoryRefreshController(RepositoryRefreshService repositoryRefreshService,
+                                       ScoringProfileRegistry scoringProfileRegistry) {
+        this.repositoryRefreshService = repositoryRefreshService;
+        this.scoringProfileRegistry = scoringProfileRegistry;
+    }
+
+    @PostMapping("/popularityScore/refresh")
+    @Operation(operationId = "refreshPopularityScore", summary = "Rescore known repositories with fresh stats", description = """
+            Fetches current stars, forks and update time for the given repositories ("owner/name")
+            through the GitHub GraphQL API, 100 repositories per upstream call, and returns them scored and ranked.
+            Lists longer than github.refresh.max-repositories (500 by default) are rejected with 400.
+            """)
+    public List<PopularityScoreResponse> refresh(@RequestBody List<String> fullNames,
+                                                 @RequestParam(name = ScoringProfileRegistry.PROFILE_PARAM, required = false) @Parameter(description = "Scoring profile to rank with (see /api/v1/scoring/profiles); the default profile when omitted") String profile) {
+        return repositoryRefreshService.refresh(fullNames, scoringProfileRegistry.resolve(profile));
+    }
+}
@@ -0,0 +1,47 @@
+package com.github.popularityscore.controller;
+
+import com.github.popularityscore.service.ScoreDistributionService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@Slf4j
+@RequestMapping(path = "/api/v1/repo")
+@RestController
+@Validated
+@Tag(name="Github Popularity Score Manager", description = "APIs for getting popularity score for each repositories")
+public class ScoreDistributionController {
+
+    private final ScoreDistributionService scoreDistributionService;
+
+    public ScoreDistributionController(ScoreDistributionService scoreDistributionService) {
+        this.scoreDistributionService = scoreDistributionService;
+    }
+
+    @GetMapping("/scoreDistribution")
+    @Operation(operationId = "exportScoreDistribution", summary = "Export per-language raw score sketches", description = """
+            Returns the t-digest sketch of raw scores per language (base64), for merging into another replica.
+            """)
+    public Map<String, String> exportDistribution() {
+        return scoreDistributionService.export();
+    }
+
+    @PostMapping("/scoreDistribution")
+    @Operation(operationId = "mergeScoreDistribution", summary = "Merge per-language raw score sketches from another replica", description = """
+            Replaces the sketches previously received from the same replica, so repeating a push does not count twice.
+            A repository scored by several replicas still counts once per replica. Needs the admin role.
+            Returns 400 when a sketch cannot be decoded or exceeds the size, language or replica limits.
+            """)
+    public void mergeDistribution(@RequestParam("replica") String replica, @RequestBody Map<String, String> sketches) {
+        scoreDistributionService.merge(replica, sketches);
+    }
+}
@@ -0,0 +1,69 @@
+package com.github.popularityscore.controller;
+
+import com.github.popularityscore.model.ScoringProfile;
+import com.github.popularityscore.service.PopularityScoreService;
+import com.github.popularityscore.service.ScoringProfileRegistry;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@Slf4j
+@RequestMapping(path = "/api/v1/scoring/profiles")
+@RestController
+@Validated
+@Tag(name = "Scoring Profiles", description = "Runtime-editable weights of the popularity score")
+public class ScoringProfileController {
+
+    private final ScoringProfileRegistry scoringProfileRegistry;
+    private final PopularityScoreService popularityScoreService;
+
+    public ScoringProfileController(ScoringProfileRegistry scoringProfileRegistry, PopularityScoreService popularityScoreService) {
+        this.scoringProfileRegistry = scoringProfileRegistry;
+        this.popularityScoreService = popularityScoreService;
+    }
+
+    @GetMapping
+    @Operation(operationId = "listScoringProfiles", summary = "List scoring profiles")
+    public List<ScoringProfile> list() {
+        return scoringProfileRegistry.list();
+    }
+
+    @GetMapping("/{name}")
+    @Operation(operationId = "getScoringProfile", summary = "Get one scoring profile")
+    public ScoringProfile get(@PathVariable("name") String name) {
+        return scoringProfileRegistry.get(name);
+    }
+
+    @PutMapping("/{name}")
+    @Operation(operationId = "putScoringProfile", summary = "Create or replace a scoring profile", description = """
+            Takes effect immediately, without a restart or any GitHub call. Select it per request with
+            ?profile=<name>. Replacing "default" also rescores every stored repository from its cached
+            components and rebuilds the language distributions. Requires the admin role.
+            """)
+    public ScoringProfile put(@PathVariable("name") String name, @RequestBody ScoringProfile profile) {
+        ScoringProfile stored = scoringProfileRegistry.put(name, profile);
+        if (ScoringProfileRegistry.DEFAULT.equals(name)) {
+            int rescored = popularityScoreService.rescoreStored();
+            log.info("Default scoring profile replaced; rescored {} stored repositories", rescored);
+        }
+        return stored;
+    }
+
+    @DeleteMapping("/{name}")
+    @Operation(operationId = "deleteScoringProfile", summary = "Remove a scoring profile (not the default)", description = "Requires the admin role.")
+    public ResponseEntity<Void> delete(@PathVariable("name") String name) {
+        scoringProfileRegistry.remove(name);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,182 @@
+package com.github.popularityscore.diagnostics;
+
+import com.github.popularityscore.exception.RecordingConflictException;
+import com.github.popularityscore.exception.RecordingNotFoundException;
+import com.github.popularityscore.model.RecordingResponse;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Starts, stops and dumps JDK Flight Recorder recordings of the running service.
+ *
+ * Every recording is bounded: it stops by itself after {@code duration} (at most
+ * {@code max-duration-seconds}) and keeps at most {@code max-size-mb} on disk. At most
+ * {@code max-active} recordings run at once and only the newest {@code retained} are kept.
+ * The application's own events (category "Popularity Score") are enabled in every recording.
+ * Events that capture the environment, system properties, JVM arguments or other processes'
+ * command lines are disabled, since they would put GITHUB_TOKEN and the webhook secret in the file.
+ * Off unless {@code app.diagnostics.recordings.enabled} is true; the endpoint needs the admin role.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(value = "app.diagnostics.recordings.enabled", havingValue = "true")
+public class FlightRecordingService {
+
+    public enum Settings {
+        /** JDK "default" settings, about 1% overhead, suitable for continuous use. */
+        DEFAULT("default"),
+        /** JDK "profile" settings: more frequent sampling, a few percent overhead. */
+        PROFILE("profile");
+
+        private final String jfcName;
+
+        Settings(String jfcName) {
+            this.jfcName = jfcName;
+        }
+    }
+
+    private static final List<Class<? extends jdk.jfr.Event>> APPLICATION_EVENTS = List.of(
+            SearchRequestEvent.class, UpstreamSearchEvent.class, JsonDecodeEvent.class, ScoringEvent.class);
+
+    private static final List<String> SENSITIVE_EVENTS = List.of(
+            "jdk.InitialEnvironmentVariable", "jdk.InitialSystemProperty", "jdk.JVMInformation", "jdk.SystemProcess");
+
+    private final Map<Long, Recording> recordings = new ConcurrentSkipListMap<>();
+    private final Map<Long, Settings> settingsById = new ConcurrentSkipListMap<>();
+    private final Duration maxDuration;
+    private final long maxSizeBytes;
+    private final int maxActive;
+    private final int retained;
+
+    public FlightRecordingService(@Value("${app.diagnostics.recordings.max-duration-seconds:600}") long maxDurationSeconds,
+                                  @Value("${app.diagnostics.recordings.max-size-mb:100}") long maxSizeMb,
+                                  @Value("${app.diagnostics.recordings.max-active:1}") int maxActive,
+                                  @Value("${app.diagnostics.recordings.retained:5}") int retained) {
+        this.maxDuration = Duration.ofSeconds(Math.max(1, maxDurationSeconds));
+        this.maxSizeBytes = Math.max(1, maxSizeMb) * 1024 * 1024;
+        this.maxActive = Math.max(1, maxActive);
+        this.retained = Math.max(1, retained);
+    }
+
+    public synchronized RecordingResponse start(Settings settings, Duration duration, Long maxSizeMb) {
+        long running = recordings.values().stream().filter(r -> r.getState() == RecordingState.RUNNING).count();
+        if (running >= maxActive) {
+            throw new RecordingConflictException(running + " recording(s) already running; stop one first.");
+        }
+        Settings effective = settings != null ? settings : Settings.DEFAULT;
+        Recording recording;
+        try {
+            recording = new Recording(Configuration.getConfiguration(effective.jfcName));
+        } catch (IOException | ParseException e) {
+            throw new IllegalStateException("JFR configuration '" + effective.jfcName + "' is not available", e);
+        }
+        APPLICATION_EVENTS.forEach(type -> recording.enable(type).withoutStackTrace());
+        SENSITIVE_EVENTS.forEach(recording::disable);
+        recording.setName("popularity-score-" + recording.getId());
+        recording.setDuration(duration == null || duration.compareTo(maxDuration) > 0 ? maxDuration : duration);
+        recording.setMaxSize(maxSizeMb == null ? maxSizeBytes : Math.min(maxSizeBytes, Math.max(1, maxSizeMb) * 1024 * 1024));
+        recording.setToDisk(true);
+        recording.start();
+
+        recordings.put(recording.getId(), recording);
+        settingsById.put(recording.getId(), effective);
+        evictOld();
+        log.info("Started JFR recording {} ({} settings, {} s, {} bytes max)", recording.getName(),
+                effective.jfcName, recording.getDuration().toSeconds(), recording.getMaxSize());
+        return toResponse(recording);
+    }
+
+    public RecordingResponse stop(long id) {
+        Recording recording = find(id);
+        if (recording.getState() == RecordingState.RUNNING) {
+            recording.stop();
+            log.info("Stopped JFR recording {}", recording.getName());
+        }
+        return toResponse(recording);
+    }
+
+    public List<RecordingResponse> list() {
+        return recordings.values().stream().map(this::toResponse).toList();
+    }
+
+    /**
+     * Writes the recording's data so far to a new temporary file; the caller deletes it.
+     * Works for running and stopped recordings.
+     */
+    public Path dump(long id) {
+        Recording recording = find(id);
+        try {
+            Path file = Files.createTempFile(recording.getName() + "-", ".jfr");
+            recording.dump(file);
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void delete(long id) {
+        Recording recording = recordings.remove(id);
+        settingsById.remove(id);
+        if (recording == null) throw notFound(id);
+        recording.close();
+    }
+
+    @PreDestroy
+    void closeAll() {
+        recordings.values().forEach(Recording::close);
+        recordings.clear();
+        settingsById.clear();
+    }
+
+    /** Closes the oldest finished recordings beyond {@code retained}. */
+    private void evictOld() {
+        List<Recording> finished = recordings.values().stream()
+                .filter(r -> r.getState() != RecordingState.RUNNING)
+                .sorted(Comparator.comparingLong(Recording::getId))
+                .toList();
+        int excess = recordings.size() - retained;
+        for (int i = 0; i < excess && i < finished.size(); i++) {
+            delete(finished.get(i).getId());
+        }
+    }
+
+    private Recording find(long id) {
+        Recording recording = recordings.get(id);
+        if (recording == null) throw notFound(id);
+        return recording;
+    }
+
+    private static RecordingNotFoundException notFound(long id) {
+        return new RecordingNotFoundException("No recording with id " + id + ".");
+    }
+
+    private RecordingResponse toResponse(Recording recording) {
+        Settings settings = settingsById.get(recording.getId());
+        return RecordingResponse.builder()
+                .id(recording.getId())
+                .name(recording.getName())
+                .state(recording.getState().name())
+                .settings(settings == null ? null : settings.jfcName)
+                .startTime(recording.getStartTime() == null ? null : recording.getStartTime().toString())
+                .durationSeconds(recording.getDuration() == null ? 0 : recording.getDuration().toSeconds())
+                .maxSizeBytes(recording.getMaxSize())
+                .build();
+    }
+}
@@ -0,0 +1,25 @@
+package com.github.popularityscore.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** Decoding of an already received GitHub response body (CPU only, no network). */
+@Name("com.github.popularityscore.JsonDecode")
+@Label("JSON Decode")
+@Category({"Popularity Score", "Upstream"})
+@StackTrace(false)
+public class JsonDecodeEvent extends jdk.jfr.Event {
+
+    @Label("Query")
+    public String query;
+
+    @Label("Body Size")
+    @DataAmount
+    public long bytes;
+
+    @Label("Item Count")
+    public int itemCount;
+}
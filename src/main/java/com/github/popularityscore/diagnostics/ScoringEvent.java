@@ -0,0 +1,22 @@
+package com.github.popularityscore.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** Scoring or ranking of one batch of repositories in PopularityScoreService. */
+@Name("com.github.popularityscore.Scoring")
+@Label("Scoring")
+@Category({"Popularity Score", "Scoring"})
+@StackTrace(false)
+public class ScoringEvent extends jdk.jfr.Event {
+
+    @Label("Stage")
+    @Description("score = raw scores (snapshot, momentum, distributions, store); rank = normalize, sort and build responses")
+    public String stage;
+
+    @Label("Item Count")
+    public int itemCount;
+}
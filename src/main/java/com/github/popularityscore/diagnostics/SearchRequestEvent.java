@@ -0,0 +1,40 @@
+package com.github.popularityscore.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One search served by RepositorySearchService, end to end. Upstream, decode and scoring events
+ * recorded on the same thread within its duration belong to it.
+ */
+@Name("com.github.popularityscore.SearchRequest")
+@Label("Search Request")
+@Category({"Popularity Score", "Requests"})
+@StackTrace(false)
+public class SearchRequestEvent extends jdk.jfr.Event {
+
+    public static final String UPSTREAM = "upstream";
+    public static final String BATCHED = "batched";
+    public static final String STORED = "stored";
+    public static final String ENUMERATED = "enumerated";
+
+    @Label("Query Key")
+    public String queryKey;
+
+    @Label("Page")
+    public int page;
+
+    @Label("Per Page")
+    public int perPage;
+
+    @Label("Item Count")
+    public int itemCount;
+
+    @Label("Cache Outcome")
+    @Description("upstream = own GitHub call; batched = served by a merged micro-batch query; "
+            + "stored = local repository store, no GitHub call; enumerated = date-window enumeration")
+    public String cacheOutcome;
+}
@@ -0,0 +1,36 @@
+package com.github.popularityscore.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** One GitHub {@code /search/repositories} call, including the network transfer and JSON decode. */
+@Name("com.github.popularityscore.UpstreamSearch")
+@Label("Upstream Search")
+@Category({"Popularity Score", "Upstream"})
+@StackTrace(false)
+public class UpstreamSearchEvent extends jdk.jfr.Event {
+
+    @Label("Query")
+    public String query;
+
+    @Label("Page")
+    public int page;
+
+    @Label("Per Page")
+    public int perPage;
+
+    @Label("HTTP Status")
+    @Description("-1 when the call failed, including GitHub error statuses")
+    public int status = -1;
+
+    @Label("Response Size")
+    @DataAmount
+    public long bytes;
+
+    @Label("Item Count")
+    public int itemCount;
+}
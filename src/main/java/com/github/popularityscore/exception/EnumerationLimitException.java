@@ -0,0 +1,17 @@
+package com.github.popularityscore.exception;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+@Getter
+@Setter
+@ToString(callSuper = true)
+public class EnumerationLimitException extends RuntimeException {
+    private final String errorCode;
+
+    public EnumerationLimitException(String message) {
+        super(message);
+        this.errorCode = "ENUMERATION_LIMIT_ERROR";
+    }
+}
@@ -0,0 +1,19 @@
+package com.github.popularityscore.exception;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+@Getter
+@Setter
+@ToString(callSuper = true)
+public class GitHubTimeoutException extends GitHubException {
+
+    public GitHubTimeoutException(String message) {
+        super(message);
+    }
+
+    public GitHubTimeoutException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
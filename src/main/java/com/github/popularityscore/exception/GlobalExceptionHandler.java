@@ -19,6 +19,13 @@ public class GlobalExceptionHandler extends GlobalExceptionHandlerBase {
         return getExceptionResponse(ex, req);
     }
 
+    @ExceptionHandler(GitHubTimeoutException.class)
+    @ResponseStatus(HttpStatus.GATEWAY_TIMEOUT)
+    public @ResponseBody ExceptionResponse handleGitHubTimeout(GitHubTimeoutException ex, HttpServletRequest req) {
+        log.warn("GitHub call timed out [{}]: {}", req.getRequestURI(), ex.getMessage());
+        return getExceptionResponse(ex, req);
+    }
+
     @ExceptionHandler(InvalidDateException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public @ResponseBody ExceptionResponse handleInvalidDate(
@@ -28,6 +35,78 @@ public class GlobalExceptionHandler extends GlobalExceptionHandlerBase {
         return getExceptionResponse(ex, req);
     }
 
+    @ExceptionHandler(InvalidRepositoryNameException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public @ResponseBody ExceptionResponse handleInvalidRepositoryName(
+            InvalidRepositoryNameException ex, HttpServletRequest req) {
+
+        log.warn("Invalid repository name [{}]: {}", req.getRequestURI(), ex.getMessage());
+        return getExceptionResponse(ex, req);
+    }
+
+    @ExceptionHandler(InvalidEventException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public @ResponseBody ExceptionResponse handleInvalidEvent(InvalidEventException ex, HttpServletRequest req) {
+        log.warn("Rejected repository event [{}]: {}", req.getRequestURI(), ex.getMessage());
+        return getExceptionResponse(ex, req);
+    }
+
+    @ExceptionHandler(WebhookDisabledException.class)
+    @ResponseStatus(HttpStatus.FORBIDDEN)
+    public @ResponseBody ExceptionResponse handleWebhookDisabled(WebhookDisabledException ex, HttpServletRequest req) {
+        log.warn("Rejected webhook delivery [{}]: {}", req.getRequestURI(), ex.getMessage());
+        return getExceptionResponse(ex, req);
+    }
+
+    @ExceptionHandler(InvalidDistributionException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public @ResponseBody ExceptionResponse handleInvalidDistribution(InvalidDistributionException ex, HttpServletRequest req) {
+        log.warn("Rejected score distribution [{}]: {}", req.getRequestURI(), ex.getMessage());
+        return getExceptionResponse(ex, req);
+    }
+
+    @ExceptionHandler(QuotaExceededException.class)
+    @ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+    public @ResponseBody ExceptionResponse handleQuotaExceeded(QuotaExceededException ex, HttpServletRequest req) {
+        log.warn("Upstream quota exceeded [{}]: {}", req.getRequestURI(), ex.getMessage());
+        return getExceptionResponse(ex, req);
+    }
+
+    @ExceptionHandler(RecordingNotFoundException.class)
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    public @ResponseBody ExceptionResponse handleRecordingNotFound(RecordingNotFoundException ex, HttpServletRequest req) {
+        log.warn("Recording not found [{}]: {}", req.getRequestURI(), ex.getMessage());
+        return getExceptionResponse(ex, req);
+    }
+
+    @ExceptionHandler(RecordingConflictException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public @ResponseBody ExceptionResponse handleRecordingConflict(RecordingConflictException ex, HttpServletRequest req) {
+        log.warn("Recording request rejected [{}]: {}", req.getRequestURI(), ex.getMessage());
+        return getExceptionResponse(ex, req);
+    }
+
+    @ExceptionHandler(InvalidCursorException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public @ResponseBody ExceptionResponse handleInvalidCursor(InvalidCursorException ex, HttpServletRequest req) {
+        log.warn("Invalid export cursor [{}]: {}", req.getRequestURI(), ex.getMessage());
+        return getExceptionResponse(ex, req);
+    }
+
+    @ExceptionHandler(InvalidScoringProfileException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public @ResponseBody ExceptionResponse handleInvalidScoringProfile(InvalidScoringProfileException ex, HttpServletRequest req) {
+        log.warn("Invalid scoring profile [{}]: {}", req.getRequestURI(), ex.getMessage());
+        return getExceptionResponse(ex, req);
+    }
+
+    @ExceptionHandler(EnumerationLimitException.class)
+    @ResponseStatus(HttpStatus.UNPROCESSABLE_ENTITY)
+    public @ResponseBody ExceptionResponse handleEnumerationLimit(EnumerationLimitException ex, HttpServletRequest req) {
+        log.warn("Enumeration too large [{}]: {}", req.getRequestURI(), ex.getMessage());
+        return getExceptionResponse(ex, req);
+    }
+
     private ExceptionResponse getExceptionResponse(Exception ex, HttpServletRequest req) {
         ExceptionResponse exceptionResponse = new ExceptionResponse();
         exceptionResponse.setErrorMessage(ex.getMessage());
@@ -0,0 +1,22 @@
+package com.github.popularityscore.exception;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+@Getter
+@Setter
+@ToString(callSuper = true)
+public class InvalidCursorException extends RuntimeException {
+    private final String errorCode;
+
+    public InvalidCursorException(String message) {
+        super(message);
+        this.errorCode = "INVALID_CURSOR_ERROR";
+    }
+
+    public InvalidCursorException(String message, Throwable cause) {
+        super(message, cause);
+        this.errorCode = "INVALID_CURSOR_ERROR";
+    }
+}
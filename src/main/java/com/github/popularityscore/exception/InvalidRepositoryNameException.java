@@ -0,0 +1,22 @@
+package com.github.popularityscore.exception;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+@Getter
+@Setter
+@ToString(callSuper = true)
+public class InvalidRepositoryNameException extends RuntimeException {
+    private final String errorCode;
+
+    public InvalidRepositoryNameException(String message) {
+        super(message);
+        this.errorCode = "INVALID_REPOSITORY_NAME_ERROR";
+    }
+
+    public InvalidRepositoryNameException(String message, Throwable cause) {
+        super(message, cause);
+        this.errorCode = "INVALID_REPOSITORY_NAME_ERROR";
+    }
+}
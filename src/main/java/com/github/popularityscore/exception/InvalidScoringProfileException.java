@@ -0,0 +1,22 @@
+package com.github.popularityscore.exception;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+@Getter
+@Setter
+@ToString(callSuper = true)
+public class InvalidScoringProfileException extends RuntimeException {
+    private final String errorCode;
+
+    public InvalidScoringProfileException(String message) {
+        super(message);
+        this.errorCode = "INVALID_SCORING_PROFILE_ERROR";
+    }
+
+    public InvalidScoringProfileException(String message, Throwable cause) {
+        super(message, cause);
+        this.errorCode = "INVALID_SCORING_PROFILE_ERROR";
+    }
+}
@@ -0,0 +1,22 @@
+package com.github.popularityscore.exception;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+@Getter
+@Setter
+@ToString(callSuper = true)
+public class QuotaExceededException extends RuntimeException {
+    private final String errorCode;
+
+    public QuotaExceededException(String message) {
+        super(message);
+        this.errorCode = "QUOTA_EXCEEDED_ERROR";
+    }
+
+    public QuotaExceededException(String message, Throwable cause) {
+        super(message, cause);
+        this.errorCode = "QUOTA_EXCEEDED_ERROR";
+    }
+}
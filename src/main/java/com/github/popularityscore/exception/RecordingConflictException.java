@@ -0,0 +1,22 @@
+package com.github.popularityscore.exception;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+@Getter
+@Setter
+@ToString(callSuper = true)
+public class RecordingConflictException extends RuntimeException {
+    private final String errorCode;
+
+    public RecordingConflictException(String message) {
+        super(message);
+        this.errorCode = "RECORDING_CONFLICT_ERROR";
+    }
+
+    public RecordingConflictException(String message, Throwable cause) {
+        super(message, cause);
+        this.errorCode = "RECORDING_CONFLICT_ERROR";
+    }
+}
@@ -0,0 +1,22 @@
+package com.github.popularityscore.exception;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+@Getter
+@Setter
+@ToString(callSuper = true)
+public class RecordingNotFoundException extends RuntimeException {
+    private final String errorCode;
+
+    public RecordingNotFoundException(String message) {
+        super(message);
+        this.errorCode = "RECORDING_NOT_FOUND_ERROR";
+    }
+
+    public RecordingNotFoundException(String message, Throwable cause) {
+        super(message, cause);
+        this.errorCode = "RECORDING_NOT_FOUND_ERROR";
+    }
+}
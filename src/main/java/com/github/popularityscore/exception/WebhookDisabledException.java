@@ -0,0 +1,17 @@
+package com.github.popularityscore.exception;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+@Getter
+@Setter
+@ToString(callSuper = true)
+public class WebhookDisabledException extends RuntimeException {
+    private final String errorCode;
+
+    public WebhookDisabledException(String message) {
+        super(message);
+        this.errorCode = "WEBHOOK_DISABLED_ERROR";
+    }
+}
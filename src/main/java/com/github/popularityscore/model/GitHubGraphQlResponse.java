@@ -0,0 +1,60 @@
+package com.github.popularityscore.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * GraphQL response for a batch of aliased {@code repository(owner, name)} selections.
+ * Each alias (r0, r1, ...) maps to a repository node, or null when it could not be resolved.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class GitHubGraphQlResponse {
+
+    @JsonProperty("data")
+    private Map<String, RepositoryNode> data;
+
+    @JsonProperty("errors")
+    private List<Map<String, Object>> errors;
+
+    public Map<String, RepositoryNode> getData() {
+        return data;
+    }
+
+    public List<Map<String, Object>> getErrors() {
+        return errors;
+    }
+
+    /**
+     * A repository node: the REST-named aliases bind as in {@link GitHubRepositoryData}; the language
+     * arrives as the {@code primaryLanguage { name }} object (null when GitHub detected none).
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class RepositoryNode extends GitHubRepositoryData {
+
+        @JsonProperty("primaryLanguage")
+        private Language primaryLanguage;
+
+        public Language getPrimaryLanguage() {
+            return primaryLanguage;
+        }
+
+        public GitHubRepositoryData toRepositoryData() {
+            return new GitHubRepositoryData(getName(), getFullName(), getHtmlUrl(), getStargazersCount(),
+                    getForksCount(), getUpdatedAt(), primaryLanguage == null ? null : primaryLanguage.getName());
+        }
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Language {
+
+        @JsonProperty("name")
+        private String name;
+
+        public String getName() {
+            return name;
+        }
+    }
+}
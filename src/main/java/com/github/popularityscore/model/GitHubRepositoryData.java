@@ -6,6 +6,8 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class GitHubRepositoryData {
 
+    public static final String GITHUB_WEB_URL = "https://github.com/";
+
     private String name;
     @JsonProperty("full_name")
     private String fullName;
@@ -17,17 +19,37 @@ public class GitHubRepositoryData {
     private int forksCount;
     @JsonProperty("updated_at")
     private String updatedAt;
+    @JsonProperty("language")
+    private String language;
+
+    public GitHubRepositoryData() {
+    }
+
+    public GitHubRepositoryData(String name, String fullName, String htmlUrl, int stargazersCount, int forksCount,
+                                String updatedAt, String language) {
+        this.name = name;
+        this.fullName = fullName;
+        this.htmlUrl = htmlUrl;
+        this.stargazersCount = stargazersCount;
+        this.forksCount = forksCount;
+        this.updatedAt = updatedAt;
+        this.language = language;
+    }
 
+    /** The given name, else the part of {@code fullName} after '/'. */
     public String getName() {
-        return name;
+        if (name != null || fullName == null) return name;
+        return fullName.substring(fullName.indexOf('/') + 1);
     }
 
     public String getFullName() {
         return fullName;
     }
 
+    /** The given html_url, else the github.com page of {@code fullName}; built on each call in that case. */
     public String getHtmlUrl() {
-        return htmlUrl;
+        if (htmlUrl != null || fullName == null) return htmlUrl;
+        return GITHUB_WEB_URL + fullName;
     }
 
     public int getStargazersCount() {
@@ -41,7 +63,8 @@ public class GitHubRepositoryData {
     public String getUpdatedAt() {
         return updatedAt;
     }
-}
-
-
 
+    public String getLanguage() {
+        return language;
+    }
+}
@@ -14,6 +14,10 @@ public class GitHubSearchResponse {
     @JsonProperty("items")
     private List<GitHubRepositoryData> items;
 
+    public int getTotalCount() {
+        return totalCount;
+    }
+
     public List<GitHubRepositoryData> getItems() {
         return items;
     }
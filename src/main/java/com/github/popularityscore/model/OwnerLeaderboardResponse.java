@@ -0,0 +1,26 @@
+package com.github.popularityscore.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Aggregated popularity of one repository owner (user or organization)")
+public class OwnerLeaderboardResponse {
+
+    @Schema(description = "Owner login")
+    private String owner;
+    @Schema(description = "Owner url")
+    private String htmlUrl;
+    @Schema(description = "Sum or max of the owner's raw repository scores")
+    private double score;
+    @Schema(description = "Owner score relative to the top owner (0–100)")
+    private double normalizedScore;
+    @Schema(description = "Number of the owner's repositories that were aggregated")
+    private int repositories;
+}
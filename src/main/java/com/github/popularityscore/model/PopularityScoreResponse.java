@@ -6,6 +6,8 @@ import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 
+import java.util.Map;
+
 @Getter
 @Builder
 @NoArgsConstructor
@@ -29,6 +31,12 @@ public class PopularityScoreResponse {
     private double rawScore;
     @Schema(description = "Normalized score")
     private double normalizedScore;
+    @Schema(description = "Score normalized against the language-wide 99th percentile raw score (0-100), comparable across pages and requests")
+    private Double percentileScore;
+    @Schema(description = "Percentage of observed repositories of the same language with a lower raw score")
+    private Double rankPercentile;
+    @Schema(description = "Average stars gained per day over each momentum window (e.g. {\"7d\": 12.5, \"30d\": 8.1}), from locally recorded snapshots")
+    private Map<String, Double> starsPerDay;
 }
 
 
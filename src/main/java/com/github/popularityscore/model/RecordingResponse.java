@@ -0,0 +1,30 @@
+package com.github.popularityscore.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "JDK Flight Recorder recording")
+public class RecordingResponse {
+
+    @Schema(description = "Recording id, used to stop, download and delete it")
+    private long id;
+    @Schema(description = "Recording name")
+    private String name;
+    @Schema(description = "NEW, RUNNING, STOPPED or CLOSED")
+    private String state;
+    @Schema(description = "JFR settings the recording was started with (default or profile)")
+    private String settings;
+    @Schema(description = "Start time (ISO-8601), null until started")
+    private String startTime;
+    @Schema(description = "Automatic stop after this many seconds")
+    private long durationSeconds;
+    @Schema(description = "Upper bound of the recording size on disk, in bytes")
+    private long maxSizeBytes;
+}
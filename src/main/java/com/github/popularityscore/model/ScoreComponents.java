@@ -0,0 +1,13 @@
+package com.github.popularityscore.model;
+
+/**
+ * Profile-independent inputs of a raw score, computed once when a repository is scored, so any
+ * {@link ScoringProfile} can rescore it without refetching or reparsing.
+ *
+ * @param logStars           log10(1 + stars)
+ * @param logForks           log10(1 + forks)
+ * @param updatedEpochSecond updated_at as epoch seconds (recency is derived at scoring time)
+ * @param logGrowth          log10(1 + stars gained per day over the first momentum window)
+ */
+public record ScoreComponents(double logStars, double logForks, long updatedEpochSecond, double logGrowth) {
+}
@@ -0,0 +1,33 @@
+package com.github.popularityscore.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Weights of the raw popularity score. The "default" profile is the one configured under
+ * {@code popularity.score}; others are registered at runtime for experiments.
+ */
+@Schema(description = "Scoring profile: weights of the raw popularity score")
+public record ScoringProfile(
+        @Schema(description = "Profile name") String name,
+        @Schema(description = "Weight of log10(1 + stars)") double starsWeight,
+        @Schema(description = "Weight of log10(1 + forks)") double forksWeight,
+        @Schema(description = "Weight of the recency decay") double recencyWeight,
+        @Schema(description = "Days after which the recency term halves") int recencyHalfLifeDays,
+        @Schema(description = "Weight of log10(1 + stars per day)") double momentumWeight) {
+
+    private static final double LN2 = Math.log(2);
+    private static final long SECONDS_PER_DAY = 86_400;
+
+    public ScoringProfile withName(String newName) {
+        return new ScoringProfile(newName, starsWeight, forksWeight, recencyWeight, recencyHalfLifeDays, momentumWeight);
+    }
+
+    /** Raw score from cached components; recency is measured in whole days up to {@code nowEpochSecond}. */
+    public double score(ScoreComponents c, long nowEpochSecond) {
+        long days = Math.max(0, (nowEpochSecond - c.updatedEpochSecond()) / SECONDS_PER_DAY);
+        int halfLife = recencyHalfLifeDays > 0 ? recencyHalfLifeDays : 1; // avoid /0
+        double recency = Math.exp(-LN2 * days / halfLife);
+        double raw = starsWeight * c.logStars() + forksWeight * c.logForks() + recencyWeight * recency;
+        return momentumWeight != 0.0 ? raw + momentumWeight * c.logGrowth() : raw;
+    }
+}
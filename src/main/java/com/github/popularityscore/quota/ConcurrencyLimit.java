@@ -0,0 +1,56 @@
+package com.github.popularityscore.quota;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * At most {@code limit} holders at once; further callers queue in arrival order.
+ *
+ * A slot is handed out as a future, so blocking callers wait on it with a timeout and
+ * non-blocking callers chain on it. A waiter gives up by completing its future exceptionally;
+ * {@link #release()} skips such waiters, and a slot completed to a waiter is owned by it.
+ */
+final class ConcurrencyLimit {
+
+    private static final CompletableFuture<Void> GRANTED = CompletableFuture.completedFuture(null);
+
+    private final int limit;
+    private final ArrayDeque<CompletableFuture<Void>> waiters = new ArrayDeque<>();
+    private int inUse;
+
+    ConcurrencyLimit(int limit) {
+        this.limit = Math.max(1, limit);
+    }
+
+    /** Completed when a slot is held; complete it exceptionally to stop waiting. */
+    synchronized CompletableFuture<Void> acquire() {
+        if (inUse < limit && waiters.isEmpty()) {
+            inUse++;
+            return GRANTED;
+        }
+        CompletableFuture<Void> waiter = new CompletableFuture<>();
+        waiters.add(waiter);
+        return waiter;
+    }
+
+    /** Hands the slot to the oldest waiter still waiting, or frees it. */
+    void release() {
+        while (true) {
+            CompletableFuture<Void> next;
+            synchronized (this) {
+                next = waiters.poll();
+                if (next == null) {
+                    inUse--;
+                    return;
+                }
+            }
+            // completed outside the lock: dependent stages may run here
+            if (next.complete(null)) return;
+        }
+    }
+
+    /** Slots currently held, i.e. calls actually in flight. */
+    synchronized int inUse() {
+        return inUse;
+    }
+}
@@ -0,0 +1,53 @@
+package com.github.popularityscore.quota;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket in GCRA form: the whole state is one "theoretical arrival time",
+ * advanced with a CAS per granted token. A caller that would have to wait reserves its slot
+ * up front, so waiting callers are served in arrival order without a queue.
+ */
+final class TokenBucket {
+
+    private final AtomicLong theoreticalArrival = new AtomicLong(Long.MIN_VALUE / 2);
+    private final int burst;
+    private volatile long intervalNanos;
+
+    TokenBucket(long intervalNanos, int burst) {
+        this.intervalNanos = intervalNanos;
+        this.burst = Math.max(1, burst);
+    }
+
+    /**
+     * Reserves one token. Returns the nanoseconds to wait before using it (0 = now), or -1 when the
+     * wait would exceed {@code maxWaitNanos}; in that case nothing is reserved.
+     */
+    long reserve(long nowNanos, long maxWaitNanos) {
+        while (true) {
+            long tat = theoreticalArrival.get();
+            long interval = intervalNanos;
+            long base = Math.max(tat, nowNanos);
+            long wait = base - nowNanos - (burst - 1) * interval;
+            if (wait > maxWaitNanos) return -1;
+            if (theoreticalArrival.compareAndSet(tat, base + interval)) {
+                return Math.max(0, wait);
+            }
+        }
+    }
+
+    /**
+     * Gives back a token taken by {@link #reserve}, e.g. when another limiter refused the call.
+     * Approximate under concurrency, but never credits more than was taken.
+     */
+    void refund() {
+        theoreticalArrival.addAndGet(-intervalNanos);
+    }
+
+    void setIntervalNanos(long intervalNanos) {
+        this.intervalNanos = intervalNanos;
+    }
+
+    long intervalNanos() {
+        return intervalNanos;
+    }
+}
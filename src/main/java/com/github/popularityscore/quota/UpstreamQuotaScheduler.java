@@ -0,0 +1,361 @@
+package com.github.popularityscore.quota;
+
+import com.github.popularityscore.exception.QuotaExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Shares the upstream GitHub quota fairly between clients.
+ *
+ * A client is the authenticated principal, or the {@code X-API-Key} header (hashed) when security
+ * is disabled, or else the caller's remote address, so anonymous callers do not share one budget
+ * ("anonymous" only outside a request). Each client has its own lock-free {@link TokenBucket} whose rate is
+ * its weighted share of {@code upstream-per-minute} among the clients active in the last
+ * {@code active-window-ms}, so an idle client's share is redistributed to busy ones. A client also
+ * has at most {@code max-concurrent-per-client} upstream calls in flight; further calls queue for a
+ * slot, which is taken only once the call's token is due, so calls still waiting for a token hold
+ * none. A call that cannot start within {@code max-wait-ms} (token and slot together) fails with
+ * {@link QuotaExceededException} (429) instead of queueing behind a heavy client.
+ *
+ * A global bucket ({@code upstream-per-minute}, {@code global-burst}) sits in front of the shares,
+ * so the sum over all clients never exceeds the upstream budget. API keys are chosen by the caller,
+ * so a key that is not listed in {@code weights} gets no burst: minting new keys buys no calls.
+ */
+@Slf4j
+@Component
+public class UpstreamQuotaScheduler {
+
+    public static final String API_KEY_HEADER = "X-API-Key";
+    static final String ANONYMOUS = "anonymous";
+    static final String KEY_PREFIX = "key:";
+    static final String ADDRESS_PREFIX = "ip:";
+    static final String OVERFLOW = "other";
+
+    /** Released when the upstream call is done; closing twice is harmless. */
+    public interface Permit extends AutoCloseable {
+        Permit NONE = () -> { };
+
+        @Override
+        void close();
+    }
+
+    /**
+     * A call whose token is due after {@link #delay()}; {@link #start()} then queues for one of the
+     * client's concurrent slots without blocking. For callers that must not block.
+     */
+    public static final class Reservation implements Permit {
+        static final Reservation IMMEDIATE = new Reservation(0, 0, null);
+
+        private final long delayNanos;
+        private final long deadlineNanos;
+        private final ClientState client;
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private final AtomicBoolean slotReleased = new AtomicBoolean();
+        private volatile CompletableFuture<Void> slot;
+
+        private Reservation(long delayNanos, long deadlineNanos, ClientState client) {
+            this.delayNanos = delayNanos;
+            this.deadlineNanos = deadlineNanos;
+            this.client = client;
+        }
+
+        public Duration delay() {
+            return Duration.ofNanos(delayNanos);
+        }
+
+        /**
+         * Completes once a concurrent slot is held, or fails with {@link QuotaExceededException} when
+         * none frees up before {@code max-wait-ms} (counted from the reservation) has passed.
+         */
+        public CompletableFuture<Void> start() {
+            if (client == null) return CompletableFuture.completedFuture(null);
+            CompletableFuture<Void> waiting = client.slots.acquire();
+            slot = waiting;
+            if (closed.get()) giveUp(waiting);
+            CompletableFuture<Void> started = new CompletableFuture<>();
+            waiting.orTimeout(remainingNanos(), TimeUnit.NANOSECONDS).whenComplete((ignored, error) -> {
+                if (error == null) {
+                    client.granted.increment();
+                    started.complete(null);
+                } else {
+                    started.completeExceptionally(error instanceof TimeoutException ? client.tooManyInFlight() : error);
+                }
+            });
+            return started;
+        }
+
+        /** Blocking {@link #start()}, for callers on their own thread. */
+        void await() {
+            if (client == null) return;
+            CompletableFuture<Void> waiting = client.slots.acquire();
+            slot = waiting;
+            try {
+                waiting.get(remainingNanos(), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException | ExecutionException e) {
+                // false: the slot was handed over just as the wait expired, so keep it
+                if (waiting.completeExceptionally(e)) throw client.tooManyInFlight();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                close();
+                throw new QuotaExceededException("Interrupted while waiting for upstream quota.", e);
+            }
+            client.granted.increment();
+        }
+
+        @Override
+        public void close() {
+            if (closed.compareAndSet(false, true)) giveUp(slot);
+        }
+
+        private long remainingNanos() {
+            return Math.max(0, deadlineNanos - System.nanoTime());
+        }
+
+        // still queued: leave the queue; slot already held: hand it to the next waiter
+        private void giveUp(CompletableFuture<Void> waiting) {
+            if (waiting == null || waiting.completeExceptionally(new CancellationException())) return;
+            if (!waiting.isCompletedExceptionally() && slotReleased.compareAndSet(false, true)) {
+                client.slots.release();
+            }
+        }
+    }
+
+    private final Map<String, ClientState> clients = new ConcurrentHashMap<>();
+    private final TokenBucket global;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final double upstreamPerMinute;
+    private final int burst;
+    private final int maxConcurrentPerClient;
+    private final long maxWaitNanos;
+    private final long activeWindowNanos;
+    private final int maxClients;
+    private final Map<String, Double> weights;
+
+    public UpstreamQuotaScheduler(MeterRegistry meterRegistry,
+                                  @Value("${app.quota.enabled:true}") boolean enabled,
+                                  @Value("${app.quota.upstream-per-minute:30}") double upstreamPerMinute,
+                                  @Value("${app.quota.burst:5}") int burst,
+                                  @Value("${app.quota.global-burst:10}") int globalBurst,
+                                  @Value("${app.quota.max-concurrent-per-client:4}") int maxConcurrentPerClient,
+                                  @Value("${app.quota.max-wait-ms:10000}") long maxWaitMs,
+                                  @Value("${app.quota.active-window-ms:60000}") long activeWindowMs,
+                                  @Value("${app.quota.max-clients:1000}") int maxClients,
+                                  @Value("${app.quota.weights:}") String weights) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.upstreamPerMinute = Math.max(0.001, upstreamPerMinute);
+        this.burst = Math.max(1, burst);
+        this.maxConcurrentPerClient = Math.max(1, maxConcurrentPerClient);
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, maxWaitMs));
+        this.activeWindowNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, activeWindowMs));
+        this.maxClients = Math.max(1, maxClients);
+        this.weights = parseWeights(weights);
+        this.global = new TokenBucket(intervalNanos(1.0), globalBurst);
+    }
+
+    /** Client of the current request thread; capture it before handing work to other threads. */
+    public String currentClient() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.isAuthenticated() && !(auth instanceof AnonymousAuthenticationToken)) {
+            return auth.getName();
+        }
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes servlet) {
+            String apiKey = servlet.getRequest().getHeader(API_KEY_HEADER);
+            if (apiKey != null && !apiKey.isBlank()) return KEY_PREFIX + fingerprint(apiKey.trim());
+            String address = servlet.getRequest().getRemoteAddr();
+            if (address != null && !address.isBlank()) return ADDRESS_PREFIX + address;
+        }
+        return ANONYMOUS;
+    }
+
+    /** One upstream call on behalf of the current request's client. */
+    public Permit acquire() {
+        return acquire(currentClient());
+    }
+
+    /** One upstream call on behalf of {@code clientId}; blocks for at most {@code max-wait-ms}. */
+    public Permit acquire(String clientId) {
+        Reservation reservation = reserve(clientId);
+        long wait = reservation.delayNanos;
+        if (wait > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                reservation.close();
+                throw new QuotaExceededException("Interrupted while waiting for upstream quota.", e);
+            }
+        }
+        reservation.await();
+        return reservation;
+    }
+
+    /** Non-blocking {@link #acquire()}: the current request's client, with the wait left to the caller. */
+    public Reservation reserve() {
+        return reserve(currentClient());
+    }
+
+    /**
+     * Reserves one upstream token on behalf of {@code clientId} without waiting: the call may start after
+     * {@link Reservation#delay()} (at most {@code max-wait-ms}) and once {@link Reservation#start()}
+     * holds a concurrent slot, or fails right away with 429.
+     */
+    public Reservation reserve(String clientId) {
+        if (!enabled) return Reservation.IMMEDIATE;
+        ClientState client = client(clientId);
+        client.lastUsedNanos = System.nanoTime();
+
+        long now = System.nanoTime();
+        long wait = client.bucket.reserve(now, maxWaitNanos);
+        if (wait < 0) {
+            client.rejected.increment();
+            throw new QuotaExceededException("Upstream quota share of client '" + client.id
+                    + "' is exhausted; retry in about " + TimeUnit.NANOSECONDS.toMillis(client.bucket.intervalNanos()) + " ms.");
+        }
+        // the global slot is taken from when the client's own slot opens
+        long globalWait = global.reserve(now + wait, maxWaitNanos - wait);
+        if (globalWait < 0) {
+            client.bucket.refund();
+            client.rejected.increment();
+            throw new QuotaExceededException("Upstream quota is exhausted for all clients; retry in about "
+                    + TimeUnit.NANOSECONDS.toMillis(global.intervalNanos()) + " ms.");
+        }
+        wait += globalWait;
+        client.waited.record(wait, TimeUnit.NANOSECONDS);
+        return new Reservation(wait, now + maxWaitNanos, client);
+    }
+
+    /** Recomputes each client's rate from the weights of the currently active clients. */
+    @Scheduled(fixedDelayString = "${app.quota.rebalance-interval-ms:1000}")
+    public void rebalance() {
+        long now = System.nanoTime();
+        double activeWeight = 0;
+        for (ClientState c : clients.values()) {
+            if (now - c.lastUsedNanos <= activeWindowNanos) activeWeight += c.weight;
+        }
+        for (ClientState c : clients.values()) {
+            // inactive clients keep the rate they would get if they became active now
+            double share = c.weight / (now - c.lastUsedNanos <= activeWindowNanos ? activeWeight : activeWeight + c.weight);
+            c.bucket.setIntervalNanos(intervalNanos(share));
+        }
+    }
+
+    /** Upstream calls per minute currently allotted to {@code clientId}; 0 for an unknown client. */
+    public double ratePerMinute(String clientId) {
+        ClientState c = clients.get(clientId);
+        return c == null ? 0.0 : TimeUnit.MINUTES.toNanos(1) / (double) c.bucket.intervalNanos();
+    }
+
+    private ClientState client(String clientId) {
+        ClientState existing = clients.get(clientId);
+        if (existing != null) return existing;
+        // bound the number of buckets (and metric tags); unknown clients beyond it share one
+        String id = clients.size() >= maxClients && !weights.containsKey(clientId) ? OVERFLOW : clientId;
+        boolean[] created = new boolean[1];
+        ClientState state = clients.computeIfAbsent(id, k -> {
+            created[0] = true;
+            // a caller-chosen API key gets no burst unless it is configured
+            int clientBurst = k.startsWith(KEY_PREFIX) && !weights.containsKey(k) ? 1 : burst;
+            return new ClientState(k, weights.getOrDefault(k, 1.0), clientBurst);
+        });
+        if (created[0]) {
+            rebalance();
+            log.debug("Upstream quota: new client {} with weight {}", id, state.weight);
+        }
+        return state;
+    }
+
+    private long intervalNanos(double share) {
+        return Math.max(1L, (long) (TimeUnit.MINUTES.toNanos(1) / (upstreamPerMinute * share)));
+    }
+
+    /** "alice=3,key:0a1b2c3d4e5f=2" → weights by client id. */
+    static Map<String, Double> parseWeights(String spec) {
+        Map<String, Double> parsed = new HashMap<>();
+        if (spec == null || spec.isBlank()) return parsed;
+        for (String entry : spec.split(",")) {
+            int eq = entry.lastIndexOf('=');
+            if (eq <= 0) continue;
+            try {
+                double weight = Double.parseDouble(entry.substring(eq + 1).trim());
+                if (weight > 0) parsed.put(entry.substring(0, eq).trim(), weight);
+            } catch (NumberFormatException e) {
+                log.warn("Ignoring invalid quota weight '{}'", entry);
+            }
+        }
+        return parsed;
+    }
+
+    /** First 12 hex chars of SHA-256, so raw keys never reach logs or metric tags. */
+    static String fingerprint(String apiKey) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(apiKey.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 6);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private final class ClientState {
+        final String id;
+        final double weight;
+        final TokenBucket bucket;
+        final ConcurrencyLimit slots = new ConcurrencyLimit(maxConcurrentPerClient);
+        final Counter granted;
+        final Counter rejected;
+        final Timer waited;
+        volatile long lastUsedNanos = System.nanoTime();
+
+        ClientState(String id, double weight, int burst) {
+            this.id = id;
+            this.weight = weight;
+            this.bucket = new TokenBucket(intervalNanos(1.0), burst);
+            this.granted = meterRegistry.counter("upstream.quota.granted", "client", id);
+            this.rejected = meterRegistry.counter("upstream.quota.rejected", "client", id);
+            this.waited = meterRegistry.timer("upstream.quota.wait", "client", id);
+            Gauge.builder("upstream.quota.in_flight", slots, ConcurrencyLimit::inUse)
+                    .tag("client", id).register(meterRegistry);
+            Gauge.builder("upstream.quota.rate_per_minute", bucket,
+                            b -> TimeUnit.MINUTES.toNanos(1) / (double) b.intervalNanos())
+                    .tag("client", id).register(meterRegistry);
+        }
+
+        /** The token taken for a call that never got a slot goes back to both buckets. */
+        QuotaExceededException tooManyInFlight() {
+            bucket.refund();
+            global.refund();
+            rejected.increment();
+            return new QuotaExceededException("Client '" + id + "' had " + maxConcurrentPerClient
+                    + " upstream calls in flight for longer than the maximum wait.");
+        }
+    }
+}
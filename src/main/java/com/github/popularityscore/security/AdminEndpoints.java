@@ -0,0 +1,34 @@
+package com.github.popularityscore.security;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.security.web.servlet.util.matcher.PathPatternRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+
+/**
+ * Endpoints that expose diagnostics or change state shared by every caller.
+ *
+ * With security enabled they need the Keycloak realm role "admin". With security disabled
+ * there is nobody to authorize, so they are closed unless {@code app.security.admin-without-auth}
+ * is true (local use only).
+ */
+final class AdminEndpoints {
+
+    static final String ROLE = "ADMIN";
+
+    private AdminEndpoints() {
+    }
+
+    static RequestMatcher matcher() {
+        PathPatternRequestMatcher.Builder paths = PathPatternRequestMatcher.withDefaults();
+        return new OrRequestMatcher(
+                paths.matcher("/api/v1/admin/**"),
+                // replayed events carry no signature, so they are trusted only from an admin
+                paths.matcher(HttpMethod.POST, "/api/v1/events/replay"),
+                // profiles are shared by every caller, and replacing "default" rescores the whole store
+                paths.matcher(HttpMethod.PUT, "/api/v1/scoring/profiles/**"),
+                paths.matcher(HttpMethod.DELETE, "/api/v1/scoring/profiles/**"),
+                // pushed sketches feed every caller's percentiles
+                paths.matcher(HttpMethod.POST, "/api/v1/repo/scoreDistribution"));
+    }
+}
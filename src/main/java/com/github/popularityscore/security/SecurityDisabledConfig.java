@@ -1,5 +1,6 @@
 package com.github.popularityscore.security;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -10,9 +11,14 @@ import org.springframework.security.web.SecurityFilterChain;
 @ConditionalOnProperty(value = "app.security.enabled", havingValue = "false", matchIfMissing = true)
 public class SecurityDisabledConfig {
   @Bean
-  SecurityFilterChain open(HttpSecurity http) throws Exception {
+  SecurityFilterChain open(HttpSecurity http,
+                           @Value("${app.security.admin-without-auth:false}") boolean adminWithoutAuth) throws Exception {
     http.csrf(csrf -> csrf.disable())
-        .authorizeHttpRequests(auth -> auth.anyRequest().permitAll());
+        .authorizeHttpRequests(auth -> {
+          // no roles without authentication: admin endpoints stay closed unless explicitly opened
+          if (!adminWithoutAuth) auth.requestMatchers(AdminEndpoints.matcher()).denyAll();
+          auth.anyRequest().permitAll();
+        });
     return http.build();
   }
 }
@@ -1,13 +1,35 @@
 package com.github.popularityscore.security;
 
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.jwk.source.JWKSourceBuilder;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
 import org.springframework.security.web.SecurityFilterChain;
 
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Map;
+
 
     @Configuration
     @Profile("keycloak")
@@ -20,8 +42,51 @@ import org.springframework.security.web.SecurityFilterChain;
                     .csrf(csrf -> csrf.disable())
                     .authorizeHttpRequests(a -> a
                             .requestMatchers("/swagger-ui/**","/v3/api-docs/**", "/").permitAll()
+                            .requestMatchers(AdminEndpoints.matcher()).hasRole(AdminEndpoints.ROLE)
                             .anyRequest().authenticated())
-                    .oauth2ResourceServer(o -> o.jwt()); // ✅ only JWT validation
+                    .oauth2ResourceServer(o -> o.jwt(jwt -> jwt.jwtAuthenticationConverter(realmRoles()))); // ✅ only JWT validation
             return http.build();
         }
+
+        /** Token scopes as SCOPE_* authorities plus Keycloak realm roles (realm_access.roles) as ROLE_*. */
+        static JwtAuthenticationConverter realmRoles() {
+            JwtGrantedAuthoritiesConverter scopes = new JwtGrantedAuthoritiesConverter();
+            JwtAuthenticationConverter converter = new JwtAuthenticationConverter();
+            converter.setJwtGrantedAuthoritiesConverter(jwt -> {
+                Collection<GrantedAuthority> authorities = new ArrayList<>(scopes.convert(jwt));
+                Map<String, Object> realmAccess = jwt.getClaimAsMap("realm_access");
+                if (realmAccess != null && realmAccess.get("roles") instanceof Collection<?> roles) {
+                    roles.forEach(role -> authorities.add(
+                            new SimpleGrantedAuthority("ROLE_" + role.toString().toUpperCase(Locale.ROOT))));
+                }
+                return authorities;
+            });
+            return converter;
+        }
+
+        /**
+         * JWKS is cached and refreshed ahead of expiry on a background thread, so key rotation never
+         * blocks a request; validated tokens are cached until their exp (see CachingJwtDecoder).
+         */
+        @Bean
+        JwtDecoder jwtDecoder(
+                @Value("${spring.security.oauth2.resourceserver.jwt.jwk-set-uri}") String jwkSetUri,
+                @Value("${app.security.jwt-cache.max-size:10000}") long cacheMaxSize,
+                @Value("${app.security.jwt-cache.max-ttl-seconds:300}") long cacheMaxTtlSeconds,
+                @Value("${app.security.jwks.ttl-seconds:300}") long jwksTtlSeconds,
+                @Value("${app.security.jwks.refresh-ahead-seconds:30}") long jwksRefreshAheadSeconds) throws MalformedURLException {
+            JWKSource<SecurityContext> jwkSource = JWKSourceBuilder.<SecurityContext>create(URI.create(jwkSetUri).toURL())
+                    .cache(Duration.ofSeconds(jwksTtlSeconds).toMillis(), JWKSourceBuilder.DEFAULT_CACHE_REFRESH_TIMEOUT)
+                    .refreshAheadCache(Duration.ofSeconds(jwksRefreshAheadSeconds).toMillis(), true)
+                    .build();
+
+            DefaultJWTProcessor<SecurityContext> processor = new DefaultJWTProcessor<>();
+            processor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.RS256, jwkSource));
+            processor.setJWSTypeVerifier((type, context) -> { });       // same as Spring's builder
+            processor.setJWTClaimsSetVerifier((claims, context) -> { }); // exp/nbf checked by JwtValidators below
+
+            NimbusJwtDecoder nimbus = new NimbusJwtDecoder(processor);
+            nimbus.setJwtValidator(JwtValidators.createDefault());
+            return new CachingJwtDecoder(nimbus, cacheMaxSize, Duration.ofSeconds(cacheMaxTtlSeconds));
+        }
     }
@@ -0,0 +1,153 @@
+package com.github.popularityscore.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.github.popularityscore.exception.InvalidCursorException;
+import com.github.popularityscore.model.GitHubRepositoryData;
+import com.github.popularityscore.store.ScoredRepositoryStore;
+import com.github.popularityscore.store.ScoredRepositoryStore.Entry;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Iterator;
+
+/**
+ * Streams every stored repository of a language, in ranking order, as NDJSON or CSV.
+ *
+ * Rows are read straight off the store's ranking iterator and written to the response stream,
+ * so memory stays constant and a slow client simply blocks the writer (TCP backpressure).
+ * Every row carries a cursor; passing the cursor of the last row received resumes after it.
+ * Cursors are positions in the ranking (score, full name), so rows rescored during an export
+ * may be skipped or repeated, like any live ranking.
+ */
+@Service
+public class BulkExportService {
+
+    public enum Format { NDJSON, CSV }
+
+    /** Position after a row of a previous export. */
+    public record Cursor(double score, String fullName) {
+    }
+
+    static final String CSV_HEADER = "full_name,name,html_url,language,stars,forks,updated_at,raw_score,cursor";
+    private static final int FLUSH_EVERY = 500;
+
+    private final ScoredRepositoryStore repositoryStore;
+    // one object per line: no separator between root values, the newline is written explicitly
+    private final JsonFactory jsonFactory = new JsonFactory().setRootValueSeparator(null);
+
+    public BulkExportService(ScoredRepositoryStore repositoryStore) {
+        this.repositoryStore = repositoryStore;
+    }
+
+    /**
+     * Writes the rows of {@code language} after {@code cursor} (null = from the top) whose updated_at lies in
+     * [{@code updatedAfter}, {@code updatedBefore}) (ISO-8601, either may be null). Returns the number of rows.
+     */
+    public long export(String language, String updatedAfter, String updatedBefore, Cursor cursor, Format format,
+                       OutputStream out) throws IOException {
+        Iterator<Entry> rows = cursor == null
+                ? repositoryStore.iterate(language, 0.0, null)
+                : repositoryStore.iterate(language, cursor.score(), cursor.fullName());
+        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        JsonGenerator json = format == Format.NDJSON ? jsonFactory.createGenerator(writer) : null;
+        if (format == Format.CSV) writer.write(CSV_HEADER + "\n");
+
+        long written = 0;
+        while (rows.hasNext()) {
+            Entry entry = rows.next();
+            GitHubRepositoryData repo = entry.repo();
+            if (!inRange(repo.getUpdatedAt(), updatedAfter, updatedBefore)) continue;
+            String next = encode(new Cursor(entry.score(), repo.getFullName()));
+            if (json != null) {
+                writeJson(json, repo, entry.score(), next);
+                json.writeRaw('\n');
+            } else {
+                writeCsv(writer, repo, entry.score(), next);
+            }
+            if (++written % FLUSH_EVERY == 0) flush(json, writer);
+        }
+        flush(json, writer);
+        return written;
+    }
+
+    private static void flush(JsonGenerator json, Writer writer) throws IOException {
+        if (json != null) json.flush();
+        writer.flush();
+    }
+
+    public static String encode(Cursor cursor) {
+        String raw = Long.toHexString(Double.doubleToLongBits(cursor.score())) + ":" + cursor.fullName();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Null or blank → null (start from the top). */
+    public static Cursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) return null;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+            int colon = raw.indexOf(':');
+            if (colon <= 0 || colon == raw.length() - 1) throw new IllegalArgumentException("missing full name");
+            return new Cursor(Double.longBitsToDouble(Long.parseUnsignedLong(raw.substring(0, colon), 16)),
+                    raw.substring(colon + 1));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Cursor '" + cursor + "' is not a cursor returned by this export.", e);
+        }
+    }
+
+    private static boolean inRange(String updatedAt, String after, String before) {
+        if (after == null && before == null) return true;
+        if (updatedAt == null) return false;
+        // GitHub timestamps are fixed-format UTC ("2024-05-01T12:00:00Z"), so string order is time order
+        return (after == null || updatedAt.compareTo(after) >= 0) && (before == null || updatedAt.compareTo(before) < 0);
+    }
+
+    private static void writeJson(JsonGenerator json, GitHubRepositoryData repo, double score, String cursor) throws IOException {
+        json.writeStartObject();
+        json.writeStringField("fullName", repo.getFullName());
+        json.writeStringField("name", repo.getName());
+        json.writeStringField("htmlUrl", repo.getHtmlUrl());
+        json.writeStringField("language", repo.getLanguage());
+        json.writeNumberField("stars", repo.getStargazersCount());
+        json.writeNumberField("forks", repo.getForksCount());
+        json.writeStringField("updatedAt", repo.getUpdatedAt());
+        json.writeNumberField("rawScore", score);
+        json.writeStringField("cursor", cursor);
+        json.writeEndObject();
+    }
+
+    private static void writeCsv(Writer out, GitHubRepositoryData repo, double score, String cursor) throws IOException {
+        out.write(csv(repo.getFullName()));
+        out.write(',');
+        out.write(csv(repo.getName()));
+        out.write(',');
+        out.write(csv(repo.getHtmlUrl()));
+        out.write(',');
+        out.write(csv(repo.getLanguage()));
+        out.write(',');
+        out.write(Integer.toString(repo.getStargazersCount()));
+        out.write(',');
+        out.write(Integer.toString(repo.getForksCount()));
+        out.write(',');
+        out.write(csv(repo.getUpdatedAt()));
+        out.write(',');
+        out.write(Double.toString(score));
+        out.write(',');
+        out.write(cursor);
+        out.write('\n');
+    }
+
+    /** RFC 4180 quoting: fields with comma, quote or line break are quoted, quotes doubled. */
+    static String csv(String value) {
+        if (value == null) return "";
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
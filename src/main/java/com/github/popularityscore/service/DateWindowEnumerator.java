@@ -0,0 +1,201 @@
+package com.github.popularityscore.service;
+
+import com.github.popularityscore.client.RestTemplateClient;
+import com.github.popularityscore.exception.EnumerationLimitException;
+import com.github.popularityscore.exception.GitHubTimeoutException;
+import com.github.popularityscore.model.GitHubRepositoryData;
+import com.github.popularityscore.model.GitHubSearchResponse;
+import com.github.popularityscore.quota.UpstreamQuotaScheduler.Permit;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Enumerates every repository of a language created in a date range, despite GitHub's
+ * 1000-result cap per search query.
+ *
+ * The range is bisected on the {@code created:} qualifier until each window reports at most
+ * 1000 results: by whole days first, then, for a single day that is still over the cap, by
+ * ISO datetime ranges down to one second. The first page of each probe (per_page=100) is kept,
+ * so a window that needs no further split costs no extra call. The remaining pages of all
+ * windows are fetched in parallel and handed to the sink as they arrive.
+ *
+ * One enumeration is bounded by {@code max-windows} leaf windows, {@code max-calls} upstream calls
+ * and {@code timeout-ms}; beyond them it fails instead of returning a silently truncated ranking.
+ */
+@Slf4j
+@Component
+public class DateWindowEnumerator {
+
+    static final int SEARCH_RESULT_CAP = 1000;
+    static final int PAGE_SIZE = 100;
+    private static final long DAY_SECONDS = 86_400;
+
+    private final RestTemplateClient restTemplateClient;
+    private final ExecutorService executor;
+    private final int maxWindows;
+    private final int maxCalls;
+    private final long timeoutMs;
+
+    public DateWindowEnumerator(RestTemplateClient restTemplateClient,
+                                @Value("${github.enumeration.parallelism:4}") int parallelism,
+                                @Value("${github.enumeration.max-windows:64}") int maxWindows,
+                                @Value("${github.enumeration.max-calls:300}") int maxCalls,
+                                @Value("${github.enumeration.timeout-ms:120000}") long timeoutMs) {
+        this.restTemplateClient = restTemplateClient;
+        this.executor = Executors.newFixedThreadPool(Math.max(1, parallelism));
+        this.maxWindows = Math.max(1, maxWindows);
+        this.maxCalls = Math.max(1, maxCalls);
+        this.timeoutMs = Math.max(1, timeoutMs);
+    }
+
+    /**
+     * Streams all repositories created within [from, to] (inclusive) into {@code sink}, one page at a time.
+     * The sink is called concurrently from worker threads and must be thread-safe.
+     */
+    public void enumerate(String language, LocalDate from, LocalDate to, Consumer<List<GitHubRepositoryData>> sink) {
+        enumerate(language, from, to, () -> Permit.NONE, sink);
+    }
+
+    /** As above; every upstream call first takes a permit from {@code permits} on the worker thread. */
+    public void enumerate(String language, LocalDate from, LocalDate to, Supplier<Permit> permits,
+                          Consumer<List<GitHubRepositoryData>> sink) {
+        if (from.isAfter(to)) return;
+        Run run = new Run(language, permits, sink);
+        long fromSecond = from.atStartOfDay(ZoneOffset.UTC).toEpochSecond();
+        long toSecond = to.plusDays(1).atStartOfDay(ZoneOffset.UTC).toEpochSecond() - 1;
+        try {
+            window(run, fromSecond, toSecond).orTimeout(timeoutMs, TimeUnit.MILLISECONDS).join();
+        } catch (CompletionException | CancellationException e) {
+            run.aborted = true; // windows still queued stop before calling GitHub
+            if (e.getCause() instanceof TimeoutException) {
+                throw new GitHubTimeoutException("Enumeration did not finish within " + timeoutMs + " ms", e.getCause());
+            }
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw e;
+        }
+    }
+
+    /** Window [fromSecond, toSecond] (epoch seconds, inclusive). */
+    private CompletableFuture<Void> window(Run run, long fromSecond, long toSecond) {
+        String query = query(run.language, fromSecond, toSecond);
+        return CompletableFuture
+                .supplyAsync(() -> search(run, query, 1), executor)
+                .thenCompose(first -> {
+                    int total = first == null ? 0 : first.getTotalCount();
+                    if (total > SEARCH_RESULT_CAP && fromSecond < toSecond) {
+                        if (run.windows.incrementAndGet() > maxWindows) { // one window becomes two
+                            throw new EnumerationLimitException("Enumeration needs more than " + maxWindows
+                                    + " date windows; use a later created_after.");
+                        }
+                        long leftEnd = splitPoint(fromSecond, toSecond);
+                        return CompletableFuture.allOf(
+                                window(run, fromSecond, leftEnd),
+                                window(run, leftEnd + 1, toSecond));
+                    }
+                    if (total > SEARCH_RESULT_CAP) {
+                        log.warn("Window {} holds {} results within one second; only the first {} are reachable",
+                                query, total, SEARCH_RESULT_CAP);
+                    }
+                    int pages = (Math.min(total, SEARCH_RESULT_CAP) + PAGE_SIZE - 1) / PAGE_SIZE;
+                    // fail before fetching pages that could not all be fetched
+                    if (pages > 1 && run.calls.get() + pages - 1 > maxCalls) {
+                        throw callLimit();
+                    }
+                    run.sink.accept(items(first));
+                    return remainingPages(run, query, pages);
+                });
+    }
+
+    /** Last second of the left half: whole days while the window spans several, else the middle second. */
+    static long splitPoint(long fromSecond, long toSecond) {
+        long days = (toSecond + 1 - fromSecond) / DAY_SECONDS;
+        if (fromSecond % DAY_SECONDS == 0 && (toSecond + 1) % DAY_SECONDS == 0 && days > 1) {
+            return fromSecond + ((days - 1) / 2 + 1) * DAY_SECONDS - 1;
+        }
+        return fromSecond + (toSecond - fromSecond) / 2;
+    }
+
+    private CompletableFuture<Void> remainingPages(Run run, String query, int pages) {
+        List<CompletableFuture<Void>> futures = new ArrayList<>(Math.max(0, pages - 1));
+        for (int page = 2; page <= pages; page++) {
+            int p = page;
+            futures.add(CompletableFuture.runAsync(
+                    () -> run.sink.accept(items(search(run, query, p))), executor));
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
+    }
+
+    private GitHubSearchResponse search(Run run, String query, int page) {
+        if (run.aborted) throw new CancellationException("Enumeration aborted");
+        if (run.calls.incrementAndGet() > maxCalls) throw callLimit();
+        try (Permit ignored = run.permits.get()) {
+            return restTemplateClient.searchRepositories(query, page, PAGE_SIZE);
+        }
+    }
+
+    private EnumerationLimitException callLimit() {
+        return new EnumerationLimitException("Enumeration needs more than " + maxCalls
+                + " GitHub calls; use a later created_after.");
+    }
+
+    /** Whole-day windows use dates; sub-day windows use ISO datetimes ("2024-01-01T00:00:00Z..2024-01-01T11:59:59Z"). */
+    static String query(String language, long fromSecond, long toSecond) {
+        StringBuilder q = new StringBuilder();
+        if (language != null && !language.isBlank()) {
+            q.append("language:").append(language.trim()).append(' ');
+        }
+        q.append("created:");
+        if (fromSecond % DAY_SECONDS == 0 && (toSecond + 1) % DAY_SECONDS == 0) {
+            q.append(LocalDate.ofEpochDay(fromSecond / DAY_SECONDS)).append("..")
+                    .append(LocalDate.ofEpochDay(toSecond / DAY_SECONDS));
+        } else {
+            q.append(DateTimeFormatter.ISO_INSTANT.format(Instant.ofEpochSecond(fromSecond))).append("..")
+                    .append(DateTimeFormatter.ISO_INSTANT.format(Instant.ofEpochSecond(toSecond)));
+        }
+        return q.toString();
+    }
+
+    private static List<GitHubRepositoryData> items(GitHubSearchResponse response) {
+        return response == null || response.getItems() == null ? List.of() : response.getItems();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /** State of one enumeration: its limits are counted across all of its windows. */
+    private static final class Run {
+        final String language;
+        final Supplier<Permit> permits;
+        final Consumer<List<GitHubRepositoryData>> sink;
+        final AtomicInteger windows = new AtomicInteger(1);
+        final AtomicInteger calls = new AtomicInteger();
+        volatile boolean aborted;
+
+        Run(String language, Supplier<Permit> permits, Consumer<List<GitHubRepositoryData>> sink) {
+            this.language = language;
+            this.permits = permits;
+            this.sink = sink;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.github.popularityscore.service;
+
+import com.github.popularityscore.model.GitHubRepositoryData;
+import com.github.popularityscore.model.OwnerLeaderboardResponse;
+import com.github.popularityscore.store.ScoredRepositoryStore;
+import com.github.popularityscore.store.ScoredRepositoryStore.Entry;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Ranks repository owners (users and organizations) by the sum or max of their repositories'
+ * raw scores.
+ *
+ * Runs over the locally stored dataset ({@link ScoredRepositoryStore}), which holds every
+ * repository scored by any search. The snapshot is split with fork-join; each leaf aggregates
+ * into a primitive {@link OwnerScoreMap} keyed by the owner id interned when the repository was
+ * stored, so no {@code fullName} is split or hashed per request.
+ */
+@Service
+public class OwnerLeaderboardService {
+
+    public enum Aggregate { SUM, MAX }
+
+    /** Entries per fork-join leaf; below this a task aggregates sequentially. */
+    static final int LEAF_SIZE = 4096;
+
+    private final ScoredRepositoryStore repositoryStore;
+    private final RepositorySearchService repositorySearchService;
+
+    public OwnerLeaderboardService(ScoredRepositoryStore repositoryStore, RepositorySearchService repositorySearchService) {
+        this.repositoryStore = repositoryStore;
+        this.repositorySearchService = repositorySearchService;
+    }
+
+    /**
+     * Top {@code limit} owners of a language. When nothing of the language is stored yet and
+     * {@code createdAfter} is given, the first page of that search is scored (and stored) first.
+     */
+    public List<OwnerLeaderboardResponse> leaderboard(String language, String createdAfter, Aggregate aggregate, int limit) {
+        Entry[] entries = repositoryStore.entries(language);
+        if (entries.length == 0 && createdAfter != null && !createdAfter.isBlank()) {
+            repositorySearchService.search(language, createdAfter, 1, 100);
+            entries = repositoryStore.entries(language);
+        }
+        return top(aggregate(entries, aggregate), aggregate, limit);
+    }
+
+    static OwnerScoreMap aggregate(Entry[] entries, Aggregate aggregate) {
+        return ForkJoinPool.commonPool().invoke(new AggregateTask(entries, 0, entries.length, aggregate == Aggregate.MAX));
+    }
+
+    private List<OwnerLeaderboardResponse> top(OwnerScoreMap byOwner, Aggregate aggregate, int limit) {
+        if (limit <= 0 || byOwner.size() == 0) return List.of();
+        // min-heap holding the best `limit` owners seen so far
+        record Ranked(int owner, double score, int count) { }
+        PriorityQueue<Ranked> best = new PriorityQueue<>(Comparator.comparingDouble(Ranked::score));
+        byOwner.forEach((owner, score, count) -> {
+            if (best.size() < limit) {
+                best.add(new Ranked(owner, score, count));
+            } else if (score > best.peek().score()) {
+                best.poll();
+                best.add(new Ranked(owner, score, count));
+            }
+        });
+        List<Ranked> ranked = new ArrayList<>(best);
+        ranked.sort(Comparator.comparingDouble(Ranked::score).reversed());
+        double maxScore = ranked.get(0).score();
+
+        List<OwnerLeaderboardResponse> out = new ArrayList<>(ranked.size());
+        for (Ranked r : ranked) {
+            String owner = repositoryStore.ownerName(r.owner());
+            out.add(OwnerLeaderboardResponse.builder()
+                    .owner(owner)
+                    .htmlUrl(GitHubRepositoryData.GITHUB_WEB_URL + owner)
+                    .score(r.score())
+                    .normalizedScore(maxScore > 0 ? 100.0 * r.score() / maxScore : 0.0)
+                    .repositories(r.count())
+                    .build());
+        }
+        return out;
+    }
+
+    private static final class AggregateTask extends RecursiveTask<OwnerScoreMap> {
+        private final Entry[] entries;
+        private final int from;
+        private final int to;
+        private final boolean max;
+
+        AggregateTask(Entry[] entries, int from, int to, boolean max) {
+            this.entries = entries;
+            this.from = from;
+            this.to = to;
+            this.max = max;
+        }
+
+        @Override
+        protected OwnerScoreMap compute() {
+            if (to - from <= LEAF_SIZE) {
+                OwnerScoreMap map = new OwnerScoreMap(Math.min(to - from, 1024));
+                for (int i = from; i < to; i++) {
+                    Entry e = entries[i];
+                    map.add(e.ownerId(), e.score(), max, 1);
+                }
+                return map;
+            }
+            int mid = (from + to) >>> 1;
+            AggregateTask left = new AggregateTask(entries, from, mid, max);
+            left.fork();
+            OwnerScoreMap right = new AggregateTask(entries, mid, to, max).compute();
+            OwnerScoreMap leftMap = left.join();
+            // merge the smaller map into the larger one
+            return leftMap.size() >= right.size() ? leftMap.merge(right, max) : right.merge(leftMap, max);
+        }
+    }
+}
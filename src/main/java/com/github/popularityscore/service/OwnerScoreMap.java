@@ -0,0 +1,87 @@
+package com.github.popularityscore.service;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing map from owner id (int) to an aggregated score and repository count, on
+ * primitive arrays (no boxing). Not thread-safe: each fork-join leaf fills its own and the
+ * results are merged pairwise.
+ */
+final class OwnerScoreMap {
+
+    private static final int EMPTY = -1;
+
+    private int[] keys;
+    private double[] scores;
+    private int[] counts;
+    private int size;
+
+    OwnerScoreMap(int expected) {
+        int capacity = Integer.highestOneBit(Math.max(16, expected * 2) - 1) << 1;
+        keys = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+        scores = new double[capacity];
+        counts = new int[capacity];
+    }
+
+    void add(int owner, double score, boolean max, int count) {
+        int slot = slot(owner);
+        if (keys[slot] == EMPTY) {
+            keys[slot] = owner;
+            scores[slot] = score;
+            counts[slot] = count;
+            if (++size * 2 > keys.length) grow();
+            return;
+        }
+        scores[slot] = max ? Math.max(scores[slot], score) : scores[slot] + score;
+        counts[slot] += count;
+    }
+
+    /** Adds every entry of {@code other} into this map. */
+    OwnerScoreMap merge(OwnerScoreMap other, boolean max) {
+        for (int i = 0; i < other.keys.length; i++) {
+            if (other.keys[i] != EMPTY) add(other.keys[i], other.scores[i], max, other.counts[i]);
+        }
+        return this;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /** Calls {@code visitor} for every owner. */
+    void forEach(Visitor visitor) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY) visitor.visit(keys[i], scores[i], counts[i]);
+        }
+    }
+
+    @FunctionalInterface
+    interface Visitor {
+        void visit(int owner, double score, int count);
+    }
+
+    private int slot(int owner) {
+        int mask = keys.length - 1;
+        int slot = (owner * 0x9E3779B9) >>> 1 & mask;
+        while (keys[slot] != EMPTY && keys[slot] != owner) slot = (slot + 1) & mask;
+        return slot;
+    }
+
+    private void grow() {
+        int[] oldKeys = keys;
+        double[] oldScores = scores;
+        int[] oldCounts = counts;
+        keys = new int[oldKeys.length * 2];
+        Arrays.fill(keys, EMPTY);
+        scores = new double[keys.length];
+        counts = new int[keys.length];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == EMPTY) continue;
+            int slot = slot(oldKeys[i]);
+            keys[slot] = oldKeys[i];
+            scores[slot] = oldScores[i];
+            counts[slot] = oldCounts[i];
+        }
+    }
+}
@@ -1,34 +1,79 @@
 package com.github.popularityscore.service;
 
+import com.github.popularityscore.diagnostics.ScoringEvent;
 import com.github.popularityscore.model.GitHubRepositoryData;
+import com.github.popularityscore.model.PopularityScoreResponse;
+import com.github.popularityscore.model.ScoreComponents;
+import com.github.popularityscore.model.ScoringProfile;
+import com.github.popularityscore.store.RepositorySnapshotStore;
+import com.github.popularityscore.store.ScoredRepositoryStore;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.stream.Collectors;
 
 
 @Service
 public class PopularityScoreService {
 
-    private final double starsWeight;
-    private final double forksWeight;
-    private final double recencyWeight;
-    private final int recencyHalfLifeDays;
+    private final ScoringProfileRegistry profiles;
+    private final List<Integer> momentumWindowsDays;
+    private final ScoreDistributionService scoreDistributions;
+    private final RepositorySnapshotStore snapshotStore;
+    private final ScoredRepositoryStore repositoryStore;
+    private volatile boolean distributionsStale;
 
+    @Autowired
     public PopularityScoreService(
-            @Value("${popularity.score.stars-weight}") double starsWeight,
-            @Value("${popularity.score.forks-weight}") double forksWeight,
-            @Value("${popularity.score.recency-weight}") double recencyWeight,
-            @Value("${popularity.score.recency-half-life-days}") int recencyHalfLifeDays) {
-        this.starsWeight = starsWeight;
-        this.forksWeight = forksWeight;
-        this.recencyWeight = recencyWeight;
-        this.recencyHalfLifeDays = recencyHalfLifeDays;
+            ScoringProfileRegistry scoringProfileRegistry,
+            @Value("${popularity.momentum.windows-days:7,30}") List<Integer> momentumWindowsDays,
+            ScoreDistributionService scoreDistributions,
+            RepositorySnapshotStore snapshotStore,
+            ScoredRepositoryStore repositoryStore) {
+        this.profiles = scoringProfileRegistry;
+        this.momentumWindowsDays = momentumWindowsDays.isEmpty() ? List.of(7) : List.copyOf(momentumWindowsDays);
+        this.scoreDistributions = scoreDistributions;
+        this.snapshotStore = snapshotStore;
+        this.repositoryStore = repositoryStore;
     }
 
+    /**
+     * Records today's star/fork snapshot, computes the score components and the raw score under the
+     * default profile and keeps the result in the repository store. A repository enters the
+     * language-wide distribution when it is first stored; later score changes reach it with the
+     * next {@link #rebuildDistributions()}, so polling the same repository never counts it twice.
+     */
     public GitHubRepositoryWithScore score(GitHubRepositoryData repo) {
-        double raw = computeRawScore(repo);
-        return new GitHubRepositoryWithScore(repo, raw, 0.0);
+        snapshotStore.record(repo.getFullName(), repo.getStargazersCount(), repo.getForksCount());
+        ScoreComponents components = components(repo);
+        double raw = profiles.defaultProfile().score(components, Instant.now().getEpochSecond());
+        if (repositoryStore.put(repo, raw, components)) {
+            scoreDistributions.record(repo.getLanguage(), raw);
+        }
+        distributionsStale = true;
+        return new GitHubRepositoryWithScore(repo, raw, 0.0, components);
+    }
+
+    /** Rebuilds the local distributions from the store (one latest score per repository) after updates. */
+    @Scheduled(fixedDelayString = "${popularity.distribution.rebuild-interval-ms:60000}")
+    public void rebuildDistributions() {
+        if (!distributionsStale) return;
+        distributionsStale = false;
+        scoreDistributions.rebuild(repositoryStore.entries(null));
+    }
+
+    public ScoringProfile defaultProfile() {
+        return profiles.defaultProfile();
     }
 
     public void assignNormalizedScores(List<GitHubRepositoryWithScore> repos, double maxRawScore) {
@@ -38,18 +83,118 @@ public class PopularityScoreService {
         }
     }
 
-    private double computeRawScore(GitHubRepositoryData repo) {
-        double stars = Math.log10(1 + repo.getStargazersCount());
-        double forks = Math.log10(1 + repo.getForksCount());
-        double recency = computeFreshness(repo.getUpdatedAt());
-        return starsWeight * stars + forksWeight * forks + recencyWeight * recency;
+    /** Scores, normalizes against the batch maximum and sorts by raw score (desc). */
+    public List<PopularityScoreResponse> rank(List<GitHubRepositoryData> items, ScoringProfile profile) {
+        ScoringEvent event = new ScoringEvent();
+        event.begin();
+        List<GitHubRepositoryWithScore> scored = items.stream()
+                .map(this::score)
+                .collect(Collectors.toList());
+        commit(event, "score", scored.size());
+        return rankScored(scored, profile);
+    }
+
+    /**
+     * Same as {@link #rank} for items already scored incrementally via {@link #score}. For a
+     * non-default profile the scores are recomputed from the cached components (no refetch); the
+     * language-wide percentile fields are omitted then, since the distributions hold default-profile scores.
+     */
+    public List<PopularityScoreResponse> rankScored(List<GitHubRepositoryWithScore> withScores, ScoringProfile profile) {
+        ScoringEvent event = new ScoringEvent();
+        event.begin();
+        boolean isDefault = ScoringProfileRegistry.DEFAULT.equals(profile.name());
+        if (!isDefault) {
+            long now = Instant.now().getEpochSecond();
+            for (GitHubRepositoryWithScore item : withScores) {
+                if (item.components != null) item.score = profile.score(item.components, now);
+            }
+        }
+        double maxRaw = withScores.stream().mapToDouble(r -> r.score).max().orElse(0.0);
+        assignNormalizedScores(withScores, maxRaw);
+
+        List<PopularityScoreResponse> ranked = withScores.stream()
+                .sorted(Comparator.comparingDouble((GitHubRepositoryWithScore r) -> r.score).reversed())
+                .map(item -> PopularityScoreResponse.builder()
+                        .name(item.repo.getName())
+                        .fullName(item.repo.getFullName())
+                        .htmlUrl(item.repo.getHtmlUrl())
+                        .stars(item.repo.getStargazersCount())
+                        .forks(item.repo.getForksCount())
+                        .updatedAt(item.repo.getUpdatedAt())
+                        .rawScore(item.score)
+                        .normalizedScore(item.normalizedScore)
+                        .percentileScore(isDefault ? scoreDistributions.percentileScore(item.repo.getLanguage(), item.score) : null)
+                        .rankPercentile(isDefault ? scoreDistributions.rankPercentile(item.repo.getLanguage(), item.score) : null)
+                        .starsPerDay(starsPerDay(item.repo.getFullName()))
+                        .build())
+                .collect(Collectors.toList());
+        commit(event, "rank", ranked.size());
+        return ranked;
+    }
+
+    /**
+     * Current ranking of a language from the repository store, without any upstream call. Under the
+     * default profile this reads the store's ranking directly. Under another profile every stored
+     * repository of the language is rescored from its components and the best {@code limit} are kept.
+     */
+    public List<PopularityScoreResponse> rankStored(String language, int limit, ScoringProfile profile) {
+        if (ScoringProfileRegistry.DEFAULT.equals(profile.name())) {
+            return rankScored(repositoryStore.top(language, limit).stream()
+                    .map(e -> new GitHubRepositoryWithScore(e.repo(), e.score(), 0.0, e.components()))
+                    .collect(Collectors.toList()), profile);
+        }
+        if (limit <= 0) return List.of();
+        long now = Instant.now().getEpochSecond();
+        PriorityQueue<GitHubRepositoryWithScore> best = new PriorityQueue<>(Comparator.comparingDouble(r -> r.score));
+        for (ScoredRepositoryStore.Entry e : repositoryStore.entries(language)) {
+            double score = e.components() != null ? profile.score(e.components(), now) : e.score();
+            if (best.size() < limit) {
+                best.add(new GitHubRepositoryWithScore(e.repo(), score, 0.0, e.components()));
+            } else if (score > best.peek().score) {
+                best.poll();
+                best.add(new GitHubRepositoryWithScore(e.repo(), score, 0.0, e.components()));
+            }
+        }
+        return rankScored(new ArrayList<>(best), profile);
+    }
+
+    /**
+     * Rescores every stored repository from its components after the default profile changed, and
+     * rebuilds the language distributions on the new scale. Returns the number rescored.
+     */
+    public int rescoreStored() {
+        ScoringProfile profile = profiles.defaultProfile();
+        long now = Instant.now().getEpochSecond();
+        int rescored = repositoryStore.rescore(e -> e.components() != null ? profile.score(e.components(), now) : e.score());
+        distributionsStale = false;
+        scoreDistributions.rebuild(repositoryStore.entries(null));
+        return rescored;
     }
 
-    private double computeFreshness(String updatedAtIso) {
-        var updated = java.time.OffsetDateTime.parse(updatedAtIso);
-        long days = Math.max(0, java.time.temporal.ChronoUnit.DAYS.between(updated, java.time.OffsetDateTime.now()));
-        int halfLife = recencyHalfLifeDays > 0 ? recencyHalfLifeDays : 1; // avoid /0
-        return Math.exp(-Math.log(2) * days / halfLife);
+    private static void commit(ScoringEvent event, String stage, int itemCount) {
+        if (event.shouldCommit()) {
+            event.stage = stage;
+            event.itemCount = itemCount;
+            event.commit();
+        }
+    }
+
+    private ScoreComponents components(GitHubRepositoryData repo) {
+        double growth = snapshotStore.starsPerDay(repo.getFullName(), momentumWindowsDays.get(0));
+        return new ScoreComponents(
+                Math.log10(1 + repo.getStargazersCount()),
+                Math.log10(1 + repo.getForksCount()),
+                OffsetDateTime.parse(repo.getUpdatedAt()).toEpochSecond(),
+                Math.log10(1 + Math.max(0.0, growth)));
+    }
+
+    /** Stars per day for each configured window, keyed like "7d"; empty while there is no history. */
+    private Map<String, Double> starsPerDay(String fullName) {
+        Map<String, Double> out = new LinkedHashMap<>();
+        for (int window : momentumWindowsDays) {
+            out.put(window + "d", snapshotStore.starsPerDay(fullName, window));
+        }
+        return out;
     }
 
     /** Dumb DTO (no logic) */
@@ -57,10 +202,16 @@ public class PopularityScoreService {
         public GitHubRepositoryData repo;
         public double score;
         public double normalizedScore;
+        public ScoreComponents components;
         public GitHubRepositoryWithScore(GitHubRepositoryData repo, double score, double normalizedScore) {
+            this(repo, score, normalizedScore, null);
+        }
+        public GitHubRepositoryWithScore(GitHubRepositoryData repo, double score, double normalizedScore,
+                                         ScoreComponents components) {
             this.repo = repo;
             this.score = score;
             this.normalizedScore = normalizedScore;
+            this.components = components;
         }
     }
 }
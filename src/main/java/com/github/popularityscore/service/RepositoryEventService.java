@@ -0,0 +1,194 @@
+package com.github.popularityscore.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.popularityscore.exception.InvalidEventException;
+import com.github.popularityscore.exception.WebhookDisabledException;
+import com.github.popularityscore.model.GitHubRepositoryData;
+import com.github.popularityscore.store.ScoredRepositoryStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Push-based ingestion of GitHub webhook events (star, watch, fork, push).
+ *
+ * Events only merge an immutable delta into a per-repository slot of a concurrent map, so the
+ * request path never touches scoring. A scheduled drain applies the coalesced deltas to the
+ * stored stars, forks and updated_at and rescores just those repositories; their ranking
+ * position is updated in place by {@link ScoredRepositoryStore}.
+ *
+ * Webhook deliveries must be signed: without {@code github.webhook.secret} they are refused (403),
+ * since anyone could otherwise post events. The drain runs from the scheduler and from the replay
+ * endpoint, so it is serialized: two drains would read the same stored baseline and lose a delta.
+ */
+@Slf4j
+@Service
+public class RepositoryEventService {
+
+    /** Coalesced change of one repository since the last drain. */
+    record Delta(int stars, int forks, OffsetDateTime pushedAt) {
+        Delta plus(Delta other) {
+            OffsetDateTime latest = pushedAt == null ? other.pushedAt
+                    : other.pushedAt == null || pushedAt.isAfter(other.pushedAt) ? pushedAt : other.pushedAt;
+            return new Delta(stars + other.stars, forks + other.forks, latest);
+        }
+    }
+
+    private final Map<String, Delta> pending = new ConcurrentHashMap<>();
+    private final ObjectMapper objectMapper;
+    private final ScoredRepositoryStore repositoryStore;
+    private final PopularityScoreService scoringService;
+    private final String webhookSecret;
+
+    public RepositoryEventService(ObjectMapper objectMapper, ScoredRepositoryStore repositoryStore,
+                                  PopularityScoreService popularityScoreService,
+                                  @Value("${github.webhook.secret:}") String webhookSecret) {
+        this.objectMapper = objectMapper;
+        this.repositoryStore = repositoryStore;
+        this.scoringService = popularityScoreService;
+        this.webhookSecret = webhookSecret;
+        if (webhookSecret == null || webhookSecret.isBlank()) {
+            log.warn("github.webhook.secret is not set: webhook deliveries to /api/v1/events are refused");
+        }
+    }
+
+    /** Webhook delivery: verifies X-Hub-Signature-256 against the configured secret, then buffers the event. */
+    public boolean accept(String eventType, byte[] body, String signature) {
+        if (webhookSecret == null || webhookSecret.isBlank()) {
+            throw new WebhookDisabledException("Webhook deliveries are disabled: github.webhook.secret is not set.");
+        }
+        if (!signatureMatches(body, signature)) {
+            throw new InvalidEventException("Invalid or missing X-Hub-Signature-256.");
+        }
+        try {
+            return accept(eventType, objectMapper.readTree(body));
+        } catch (IOException e) {
+            throw new InvalidEventException("Event payload is not valid JSON: " + e.getMessage(), e);
+        }
+    }
+
+    /** Buffers one event; returns false for event types that do not affect scoring (e.g. ping, watch). */
+    public boolean accept(String eventType, JsonNode payload) {
+        String fullName = payload.path("repository").path("full_name").asText(null);
+        if (fullName == null || fullName.isBlank()) {
+            throw new InvalidEventException("Event payload has no repository.full_name.");
+        }
+        String action = payload.path("action").asText("");
+        Delta delta = switch (eventType == null ? "" : eventType) {
+            // GitHub also sends the legacy "watch"/started for every star, so only "star" is counted
+            case "star" -> "created".equals(action) ? new Delta(1, 0, null)
+                    : "deleted".equals(action) ? new Delta(-1, 0, null) : null;
+            case "fork" -> new Delta(0, 1, null);
+            case "push" -> new Delta(0, 0, pushTime(payload));
+            default -> null;
+        };
+        if (delta == null) return false;
+        pending.merge(fullName, delta, Delta::plus);
+        return true;
+    }
+
+    /**
+     * Replays recorded events, one JSON object per line: {"event": "watch", "payload": {...}}.
+     * Returns the number of events that were buffered.
+     */
+    public int replay(BufferedReader ndjson) throws IOException {
+        int accepted = 0;
+        String line;
+        while ((line = ndjson.readLine()) != null) {
+            if (line.isBlank()) continue;
+            JsonNode record;
+            try {
+                record = objectMapper.readTree(line);
+            } catch (JsonProcessingException e) {
+                throw new InvalidEventException("Replayed line is not valid JSON: " + e.getOriginalMessage(), e);
+            }
+            if (accept(record.path("event").asText(null), record.path("payload"))) accepted++;
+        }
+        return accepted;
+    }
+
+    /** Applies all buffered deltas and rescores the affected repositories. Returns how many were rescored. */
+    @Scheduled(fixedDelayString = "${popularity.events.apply-interval-ms:1000}")
+    public synchronized int applyPending() {
+        int applied = 0;
+        for (String fullName : pending.keySet()) {
+            Delta delta = pending.remove(fullName);
+            if (delta == null) continue;
+            ScoredRepositoryStore.Entry current = repositoryStore.get(fullName);
+            if (current == null) {
+                // never scored here: no baseline stars/forks to apply a delta to
+                log.debug("Dropping events for untracked repository {}", fullName);
+                continue;
+            }
+            GitHubRepositoryData repo = current.repo();
+            scoringService.score(new GitHubRepositoryData(
+                    repo.getName(),
+                    repo.getFullName(),
+                    repo.getHtmlUrl(),
+                    Math.max(0, repo.getStargazersCount() + delta.stars()),
+                    Math.max(0, repo.getForksCount() + delta.forks()),
+                    latest(repo.getUpdatedAt(), delta.pushedAt()),
+                    repo.getLanguage()));
+            applied++;
+        }
+        if (applied > 0) log.debug("Applied buffered events to {} repositories", applied);
+        return applied;
+    }
+
+    public int pendingRepositories() {
+        return pending.size();
+    }
+
+    private static OffsetDateTime pushTime(JsonNode payload) {
+        String timestamp = payload.path("head_commit").path("timestamp").asText(null);
+        if (timestamp != null) {
+            try {
+                return OffsetDateTime.parse(timestamp);
+            } catch (DateTimeParseException ignored) {
+                // fall through to receipt time
+            }
+        }
+        return OffsetDateTime.now(ZoneOffset.UTC);
+    }
+
+    private static String latest(String updatedAt, OffsetDateTime pushedAt) {
+        if (pushedAt == null) return updatedAt;
+        if (updatedAt == null || pushedAt.isAfter(OffsetDateTime.parse(updatedAt))) {
+            // GitHub's updated_at format (seconds always present), so string order stays time order
+            return DateTimeFormatter.ISO_INSTANT.format(pushedAt.toInstant().truncatedTo(ChronoUnit.SECONDS));
+        }
+        return updatedAt;
+    }
+
+    private boolean signatureMatches(byte[] body, String signature) {
+        if (signature == null || !signature.startsWith("sha256=")) return false;
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(webhookSecret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            byte[] expected = mac.doFinal(body);
+            byte[] given = HexFormat.of().parseHex(signature.substring("sha256=".length()));
+            return MessageDigest.isEqual(expected, given);
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.github.popularityscore.service;
+
+import com.github.popularityscore.client.GraphQlStatsClient;
+import com.github.popularityscore.exception.InvalidRepositoryNameException;
+import com.github.popularityscore.model.GitHubRepositoryData;
+import com.github.popularityscore.model.PopularityScoreResponse;
+import com.github.popularityscore.model.ScoringProfile;
+import com.github.popularityscore.quota.UpstreamQuotaScheduler;
+import com.github.popularityscore.quota.UpstreamQuotaScheduler.Permit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Rescores repositories we already know by name. Stats come from the GraphQL client
+ * (one upstream call per 100 repositories) instead of re-running capped search queries.
+ * A request names at most {@code github.refresh.max-repositories}, so one caller cannot queue
+ * an unbounded number of upstream calls; longer lists are rejected with 400.
+ */
+@Service
+public class RepositoryRefreshService {
+
+    private static final Pattern FULL_NAME = Pattern.compile("[A-Za-z0-9-]+/[A-Za-z0-9._-]+");
+
+    private final GraphQlStatsClient graphQlStatsClient;
+    private final PopularityScoreService scoringService;
+    private final UpstreamQuotaScheduler quotaScheduler;
+    private final int maxRepositories;
+
+    public RepositoryRefreshService(GraphQlStatsClient graphQlStatsClient, PopularityScoreService popularityScoreService,
+                                    UpstreamQuotaScheduler upstreamQuotaScheduler,
+                                    @Value("${github.refresh.max-repositories:500}") int maxRepositories) {
+        this.graphQlStatsClient = graphQlStatsClient;
+        this.scoringService = popularityScoreService;
+        this.quotaScheduler = upstreamQuotaScheduler;
+        this.maxRepositories = maxRepositories;
+    }
+
+    public List<PopularityScoreResponse> refresh(List<String> fullNames, ScoringProfile profile) {
+        if (fullNames == null || fullNames.isEmpty()) return List.of();
+        if (fullNames.size() > maxRepositories) {
+            throw new InvalidRepositoryNameException("At most " + maxRepositories + " repositories can be refreshed per request, got "
+                    + fullNames.size() + ".");
+        }
+
+        List<String> distinct = new ArrayList<>(new LinkedHashSet<>(fullNames));
+        for (String fullName : distinct) {
+            if (fullName == null || !FULL_NAME.matcher(fullName).matches()) {
+                throw new InvalidRepositoryNameException("Repository '" + fullName + "' must be in owner/name format.");
+            }
+        }
+
+        List<GitHubRepositoryData> items = new ArrayList<>(distinct.size());
+        for (int from = 0; from < distinct.size(); from += GraphQlStatsClient.MAX_BATCH_SIZE) {
+            int to = Math.min(from + GraphQlStatsClient.MAX_BATCH_SIZE, distinct.size());
+            try (Permit ignored = quotaScheduler.acquire()) {
+                items.addAll(graphQlStatsClient.fetchStats(distinct.subList(from, to)));
+            }
+        }
+        return scoringService.rank(items, profile);
+    }
+}
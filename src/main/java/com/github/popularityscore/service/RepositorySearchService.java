@@ -1,57 +1,131 @@
 package com.github.popularityscore.service;
 
 import com.github.popularityscore.client.RestTemplateClient;
+import com.github.popularityscore.client.WebClientSearchClient;
+import com.github.popularityscore.diagnostics.SearchRequestEvent;
 import com.github.popularityscore.model.GitHubRepositoryData;
 import com.github.popularityscore.model.GitHubSearchResponse;
 import com.github.popularityscore.model.PopularityScoreResponse;
+import com.github.popularityscore.model.ScoringProfile;
+import com.github.popularityscore.quota.UpstreamQuotaScheduler;
+import com.github.popularityscore.quota.UpstreamQuotaScheduler.Permit;
+import com.github.popularityscore.quota.UpstreamQuotaScheduler.Reservation;
 import com.github.popularityscore.service.PopularityScoreService.GitHubRepositoryWithScore;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
 
-import java.util.Comparator;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 public class RepositorySearchService {
 
     private final RestTemplateClient restTemplateClient;
     private final PopularityScoreService scoringService;
+    private final DateWindowEnumerator dateWindowEnumerator;
+    private final WebClientSearchClient webClientSearchClient;
+    private final Duration defaultTimeout;
+    private final SearchRequestBatcher searchRequestBatcher;
+    private final boolean batchingEnabled;
+    private final UpstreamQuotaScheduler quotaScheduler;
 
-    public RepositorySearchService(RestTemplateClient restTemplateClient, PopularityScoreService popularityScoreService) {
+    public RepositorySearchService(RestTemplateClient restTemplateClient, PopularityScoreService popularityScoreService,
+                                   DateWindowEnumerator dateWindowEnumerator, WebClientSearchClient webClientSearchClient,
+                                   @Value("${github.api.timeout-ms:10000}") long defaultTimeoutMs,
+                                   SearchRequestBatcher searchRequestBatcher,
+                                   @Value("${github.batching.enabled:true}") boolean batchingEnabled,
+                                   UpstreamQuotaScheduler upstreamQuotaScheduler) {
         this.restTemplateClient = restTemplateClient;
         this.scoringService = popularityScoreService;
+        this.dateWindowEnumerator = dateWindowEnumerator;
+        this.webClientSearchClient = webClientSearchClient;
+        this.defaultTimeout = Duration.ofMillis(defaultTimeoutMs);
+        this.searchRequestBatcher = searchRequestBatcher;
+        this.batchingEnabled = batchingEnabled;
+        this.quotaScheduler = upstreamQuotaScheduler;
     }
 
-    public List<PopularityScoreResponse> search(String query, int page, int perPage) {
-        GitHubSearchResponse response = restTemplateClient.searchRepositories(query, page, perPage);
+    public List<PopularityScoreResponse> search(String query, int page, int perPage, ScoringProfile profile) {
+        SearchRequestEvent event = new SearchRequestEvent();
+        event.begin();
+        GitHubSearchResponse response;
+        try (Permit ignored = quotaScheduler.acquire()) {
+            response = restTemplateClient.searchRepositories(query, page, perPage);
+        }
         List<GitHubRepositoryData> items =
                 response == null || response.getItems() == null ? List.of() : response.getItems();
 
-        // compute raw scores using the service (uses YAML weights)
-        List<GitHubRepositoryWithScore> withScores = items.stream()
-                .map(scoringService::score)   // <-- changed line
-                .collect(Collectors.toList());
+        List<PopularityScoreResponse> ranked = scoringService.rank(items, profile);
+        commit(event, query, page, perPage, ranked.size(), SearchRequestEvent.UPSTREAM);
+        return ranked;
+    }
 
-        double maxRaw = withScores.stream().mapToDouble(r -> r.score).max().orElse(0.0);
-        scoringService.assignNormalizedScores(withScores, maxRaw);
 
-        return withScores.stream()
-                .sorted(Comparator.comparingDouble((GitHubRepositoryWithScore r) -> r.score).reversed())
-                .map(item -> PopularityScoreResponse.builder()
-                        .name(item.repo.getName())
-                        .fullName(item.repo.getFullName())
-                        .htmlUrl(item.repo.getHtmlUrl())
-                        .stars(item.repo.getStargazersCount())
-                        .forks(item.repo.getForksCount())
-                        .updatedAt(item.repo.getUpdatedAt())
-                        .rawScore(item.score)
-                        .normalizedScore(item.normalizedScore)
-                        .build())
-                .collect(Collectors.toList());
+    /** Ranked under the default profile. */
+    public List<PopularityScoreResponse> search(String language, String createdAfter, int page, int perPage) {
+        return search(language, createdAfter, page, perPage, scoringService.defaultProfile());
     }
 
+    public List<PopularityScoreResponse> search(String language, String createdAfter, int page, int perPage,
+                                                ScoringProfile profile) {
+        // first pages of concurrent requests are merged into combined multi-language queries
+        if (batchingEnabled && page == 1 && language != null && !language.isBlank()
+                && createdAfter != null && !createdAfter.isBlank()) {
+            SearchRequestEvent event = new SearchRequestEvent();
+            event.begin();
+            // charged as one call even when merged: the client's share must not depend on its neighbours
+            List<GitHubRepositoryData> items;
+            try (Permit ignored = quotaScheduler.acquire()) {
+                items = searchRequestBatcher.searchFirstPage(language, createdAfter.trim(), perPage);
+            }
+            List<PopularityScoreResponse> ranked = scoringService.rank(items, profile);
+            commit(event, buildQuery(language, createdAfter), page, perPage, ranked.size(), SearchRequestEvent.BATCHED);
+            return ranked;
+        }
+        return search(buildQuery(language, createdAfter), page, perPage, profile);
+    }
 
-    public List<PopularityScoreResponse> search(String language, String createdAfter, int page, int perPage) {
+    /**
+     * Non-blocking variant of {@link #search(String, String, int, int, ScoringProfile)}: the servlet thread is released
+     * while GitHub answers. {@code timeout} bounds the upstream call (null = github.api.timeout-ms).
+     */
+    public CompletableFuture<List<PopularityScoreResponse>> searchAsync(String language, String createdAfter,
+                                                                       int page, int perPage, Duration timeout,
+                                                                       ScoringProfile profile) {
+        SearchRequestEvent event = new SearchRequestEvent();
+        event.begin();
+        String query = buildQuery(language, createdAfter);
+        // never sleeps here: a call that has to wait for quota is delayed on a timer, then queues for a slot
+        Reservation reservation = quotaScheduler.reserve();
+        return Mono.fromFuture(reservation::start)
+                .delaySubscription(reservation.delay())
+                .then(Mono.defer(() -> webClientSearchClient
+                        .searchRepositories(query, page, perPage, timeout != null ? timeout : defaultTimeout)))
+                .doFinally(signal -> reservation.close())
+                .map(response -> response.getItems() == null ? List.<GitHubRepositoryData>of() : response.getItems())
+                .defaultIfEmpty(List.of())
+                .map(items -> scoringService.rank(items, profile))
+                // committed on the thread that completes the call, with its full duration
+                .doOnNext(ranked -> commit(event, query, page, perPage, ranked.size(), SearchRequestEvent.UPSTREAM))
+                .toFuture();
+    }
+
+    /** Top {@code limit} locally stored repositories of a language, kept current by event ingestion. */
+    public List<PopularityScoreResponse> searchStored(String language, int limit, ScoringProfile profile) {
+        SearchRequestEvent event = new SearchRequestEvent();
+        event.begin();
+        List<PopularityScoreResponse> ranked = scoringService.rankStored(language, limit, profile);
+        commit(event, buildQuery(language, null), 1, limit, ranked.size(), SearchRequestEvent.STORED);
+        return ranked;
+    }
+
+    private static String buildQuery(String language, String createdAfter) {
         StringBuilder q = new StringBuilder();
         if (language != null && !language.isBlank()) {
             q.append("language:").append(language.trim());
@@ -60,10 +134,38 @@ public class RepositorySearchService {
             if (q.length() > 0) q.append(' ');     // <-- add a space between qualifiers
             q.append("created:>").append(createdAfter.trim());
         }
-
-        return search(q.toString(), page, perPage);
+        return q.toString();
     }
-}
-
 
+    /**
+     * Complete ranking of all repositories created after {@code createdAfter}, beyond the 1000-result
+     * search cap. Pages are scored as they stream in; normalization runs once over the full set.
+     */
+    public List<PopularityScoreResponse> searchAll(String language, String createdAfter, ScoringProfile profile) {
+        SearchRequestEvent event = new SearchRequestEvent();
+        event.begin();
+        Map<String, GitHubRepositoryWithScore> scored = new ConcurrentHashMap<>();
+        LocalDate from = LocalDate.parse(createdAfter.trim()).plusDays(1); // created:> is exclusive
+        String client = quotaScheduler.currentClient(); // worker threads have no request context
+        dateWindowEnumerator.enumerate(language, from, LocalDate.now(), () -> quotaScheduler.acquire(client), page -> {
+            for (GitHubRepositoryData repo : page) {
+                scored.computeIfAbsent(repo.getFullName(), k -> scoringService.score(repo));
+            }
+        });
+        List<PopularityScoreResponse> ranked = scoringService.rankScored(new ArrayList<>(scored.values()), profile);
+        commit(event, buildQuery(language, createdAfter), 0, 0, ranked.size(), SearchRequestEvent.ENUMERATED);
+        return ranked;
+    }
 
+    private static void commit(SearchRequestEvent event, String queryKey, int page, int perPage, int itemCount,
+                               String cacheOutcome) {
+        if (event.shouldCommit()) {
+            event.queryKey = queryKey;
+            event.page = page;
+            event.perPage = perPage;
+            event.itemCount = itemCount;
+            event.cacheOutcome = cacheOutcome;
+            event.commit();
+        }
+    }
+}
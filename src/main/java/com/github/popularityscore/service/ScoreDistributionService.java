@@ -0,0 +1,239 @@
+package com.github.popularityscore.service;
+
+import com.github.popularityscore.exception.InvalidDistributionException;
+import com.github.popularityscore.store.ScoredRepositoryStore;
+import com.tdunning.math.stats.MergingDigest;
+import com.tdunning.math.stats.TDigest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-language raw-score distribution kept as a t-digest sketch.
+ *
+ * Each stored repository counts once: a repository is recorded when it is first stored, and the
+ * local sketches are rebuilt from the repository store (one latest score per repository) via
+ * {@link #rebuild}, since a sketch cannot forget a value. Memory is bounded by the compression
+ * factor and the language cap, independent of how many scores were recorded.
+ *
+ * Sketches received from another replica are kept per replica and replace that replica's previous
+ * ones, so re-sending the same export is harmless. Queries combine the local and replica sketches;
+ * {@link #export} only ships the local ones, so replicas never echo each other's data back. A sketch
+ * cannot tell which repositories it holds, so a repository scored by several replicas counts once
+ * per replica: the combined distribution is weighted towards repositories many replicas have seen.
+ *
+ * Received sketches are untrusted: their size, compression and centroid count are checked before
+ * the t-digest decoder allocates anything.
+ */
+@Service
+public class ScoreDistributionService {
+
+    static final double COMPRESSION = 100;
+    static final double REFERENCE_QUANTILE = 0.99;
+    static final int MAX_KEY_LENGTH = 64;
+    // MergingDigest.asBytes: int encoding, double min, max, compression, int centroids, then 16 bytes each
+    static final int VERBOSE_ENCODING = 1;
+    static final int HEADER_BYTES = 4 + 3 * 8 + 4;
+    static final double MAX_COMPRESSION = 10 * COMPRESSION;
+    static final int MAX_CENTROIDS = 10_000;
+    static final int MAX_SKETCH_BYTES = HEADER_BYTES + MAX_CENTROIDS * 16;
+
+    private final int maxLanguages;
+    private final int maxReplicas;
+    private volatile Map<String, TDigest> local = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, TDigest>> replicas = new ConcurrentHashMap<>();
+
+    public ScoreDistributionService(
+            @Value("${popularity.distribution.max-languages:512}") int maxLanguages,
+            @Value("${popularity.distribution.max-replicas:16}") int maxReplicas) {
+        this.maxLanguages = maxLanguages;
+        this.maxReplicas = maxReplicas;
+    }
+
+    /** Adds one repository's score; languages beyond the cap are not tracked. */
+    public void record(String language, double rawScore) {
+        if (language == null) return;
+        TDigest digest = digest(local, key(language));
+        if (digest == null) return;
+        synchronized (digest) {
+            digest.add(rawScore);
+        }
+    }
+
+    /** Replaces the local sketches with the current score of every stored repository. */
+    public void rebuild(ScoredRepositoryStore.Entry[] entries) {
+        Map<String, TDigest> fresh = new ConcurrentHashMap<>();
+        for (ScoredRepositoryStore.Entry e : entries) {
+            if (e.language() == null) continue;
+            TDigest digest = digest(fresh, key(e.language()));
+            if (digest != null) digest.add(e.score());
+        }
+        local = fresh;
+    }
+
+    /** Percentage (0-100) of recorded scores below {@code rawScore}; null when nothing was recorded yet. */
+    public Double rankPercentile(String language, double rawScore) {
+        List<TDigest> sketches = sketches(language);
+        double below = 0;
+        long total = 0;
+        for (TDigest digest : sketches) {
+            synchronized (digest) {
+                if (digest.size() == 0) continue;
+                below += digest.size() * digest.cdf(rawScore);
+                total += digest.size();
+            }
+        }
+        return total == 0 ? null : 100.0 * below / total;
+    }
+
+    /**
+     * Score scaled so the language-wide 99th percentile maps to 100 (capped). Unlike the
+     * per-page normalization, it does not depend on which page the repository appeared on.
+     */
+    public Double percentileScore(String language, double rawScore) {
+        Double reference = quantile(sketches(language), REFERENCE_QUANTILE);
+        if (reference == null || reference <= 0.0) return null;
+        return Math.min(100.0, 100.0 * rawScore / reference);
+    }
+
+    /** Serialized local sketches (language -> base64), for shipping to another replica. */
+    public Map<String, String> export() {
+        Map<String, String> out = new HashMap<>();
+        local.forEach((language, digest) -> {
+            synchronized (digest) {
+                ByteBuffer buf = ByteBuffer.allocate(digest.byteSize());
+                digest.asBytes(buf);
+                out.put(language, Base64.getEncoder().encodeToString(buf.array()));
+            }
+        });
+        return out;
+    }
+
+    /**
+     * Stores the sketches exported by {@code replica}, replacing the ones it sent before. The
+     * payload is validated as a whole; nothing is kept when any part of it is rejected.
+     */
+    public void merge(String replica, Map<String, String> exported) {
+        if (replica == null || replica.isBlank() || replica.length() > MAX_KEY_LENGTH) {
+            throw new InvalidDistributionException("Replica id must be 1-" + MAX_KEY_LENGTH + " characters");
+        }
+        if (exported.size() > maxLanguages) {
+            throw new InvalidDistributionException("At most " + maxLanguages + " languages per replica");
+        }
+        Map<String, TDigest> decoded = new HashMap<>();
+        exported.forEach((language, encoded) -> {
+            if (language == null || language.isBlank() || language.length() > MAX_KEY_LENGTH) {
+                throw new InvalidDistributionException("Language key must be 1-" + MAX_KEY_LENGTH + " characters");
+            }
+            decoded.put(key(language), decode(language, encoded));
+        });
+        if (!replicas.containsKey(replica) && replicas.size() >= maxReplicas) {
+            throw new InvalidDistributionException("At most " + maxReplicas + " replicas are tracked");
+        }
+        replicas.put(replica, new ConcurrentHashMap<>(decoded));
+    }
+
+    private static TDigest decode(String language, String encoded) {
+        // base64 of MAX_SKETCH_BYTES, checked before anything is decoded
+        if (encoded == null || encoded.length() > 4 * ((MAX_SKETCH_BYTES + 2) / 3)) {
+            throw new InvalidDistributionException("Sketch for language '" + language + "' is missing or larger than "
+                    + MAX_SKETCH_BYTES + " bytes");
+        }
+        ByteBuffer bytes;
+        try {
+            bytes = ByteBuffer.wrap(Base64.getDecoder().decode(encoded));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidDistributionException("Invalid sketch for language '" + language + "'", e);
+        }
+        checkHeader(language, bytes.duplicate());
+        try {
+            return MergingDigest.fromBytes(bytes);
+        } catch (RuntimeException e) {
+            throw new InvalidDistributionException("Invalid sketch for language '" + language + "'", e);
+        }
+    }
+
+    /** The decoder sizes its arrays from the compression in the header, so it is bounded first. */
+    private static void checkHeader(String language, ByteBuffer header) {
+        if (header.remaining() < HEADER_BYTES || header.getInt() != VERBOSE_ENCODING) {
+            throw new InvalidDistributionException("Sketch for language '" + language + "' is not a t-digest export");
+        }
+        header.getDouble(); // min
+        header.getDouble(); // max
+        double compression = header.getDouble();
+        int centroids = header.getInt();
+        if (!(compression >= 1.0 && compression <= MAX_COMPRESSION)) {
+            throw new InvalidDistributionException("Sketch for language '" + language + "' has compression "
+                    + compression + "; at most " + MAX_COMPRESSION + " is accepted");
+        }
+        if (centroids < 0 || centroids > MAX_CENTROIDS || centroids * 16L > header.remaining()) {
+            throw new InvalidDistributionException("Sketch for language '" + language + "' has an invalid centroid count");
+        }
+    }
+
+    private List<TDigest> sketches(String language) {
+        if (language == null) return List.of();
+        String key = key(language);
+        List<TDigest> out = new ArrayList<>(1 + replicas.size());
+        TDigest own = local.get(key);
+        if (own != null) out.add(own);
+        for (Map<String, TDigest> replica : replicas.values()) {
+            TDigest digest = replica.get(key);
+            if (digest != null) out.add(digest);
+        }
+        return out;
+    }
+
+    // The combined quantile is the value whose combined CDF reaches q; with a single sketch that is
+    // the sketch's own quantile, otherwise it is bisected between the overall min and max.
+    private static Double quantile(List<TDigest> sketches, double q) {
+        if (sketches.size() == 1) {
+            TDigest digest = sketches.get(0);
+            synchronized (digest) {
+                return digest.size() == 0 ? null : digest.quantile(q);
+            }
+        }
+        double lo = Double.POSITIVE_INFINITY;
+        double hi = Double.NEGATIVE_INFINITY;
+        long total = 0;
+        for (TDigest digest : sketches) {
+            synchronized (digest) {
+                if (digest.size() == 0) continue;
+                lo = Math.min(lo, digest.getMin());
+                hi = Math.max(hi, digest.getMax());
+                total += digest.size();
+            }
+        }
+        if (total == 0) return null;
+        for (int i = 0; i < 50 && hi - lo > 1e-9 * Math.max(1.0, Math.abs(hi)); i++) {
+            double mid = (lo + hi) / 2;
+            double below = 0;
+            for (TDigest digest : sketches) {
+                synchronized (digest) {
+                    if (digest.size() > 0) below += digest.size() * digest.cdf(mid);
+                }
+            }
+            if (below / total < q) lo = mid;
+            else hi = mid;
+        }
+        return (lo + hi) / 2;
+    }
+
+    private TDigest digest(Map<String, TDigest> digests, String key) {
+        TDigest digest = digests.get(key);
+        if (digest != null || digests.size() >= maxLanguages) return digest;
+        return digests.computeIfAbsent(key, k -> new MergingDigest(COMPRESSION));
+    }
+
+    private static String key(String language) {
+        return language.trim().toLowerCase(Locale.ROOT);
+    }
+}
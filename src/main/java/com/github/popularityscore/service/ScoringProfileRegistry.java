@@ -0,0 +1,96 @@
+package com.github.popularityscore.service;
+
+import com.github.popularityscore.exception.InvalidScoringProfileException;
+import com.github.popularityscore.model.ScoringProfile;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Scoring profiles by name. "default" starts from {@code popularity.score.*}; any profile,
+ * including the default, can be replaced at runtime without a restart.
+ *
+ * A request selects a profile with the {@code profile} query parameter, which controllers bind and
+ * pass to {@link #resolve(String)}.
+ * Reads are lock-free on an immutable snapshot; updates copy it.
+ */
+@Service
+public class ScoringProfileRegistry {
+
+    public static final String DEFAULT = "default";
+    public static final String PROFILE_PARAM = "profile";
+    private static final Pattern NAME = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+
+    private volatile Map<String, ScoringProfile> profiles;
+
+    @Autowired
+    public ScoringProfileRegistry(@Value("${popularity.score.stars-weight}") double starsWeight,
+                                  @Value("${popularity.score.forks-weight}") double forksWeight,
+                                  @Value("${popularity.score.recency-weight}") double recencyWeight,
+                                  @Value("${popularity.score.recency-half-life-days}") int recencyHalfLifeDays,
+                                  @Value("${popularity.score.momentum-weight:0.0}") double momentumWeight) {
+        this(new ScoringProfile(DEFAULT, starsWeight, forksWeight, recencyWeight, recencyHalfLifeDays, momentumWeight));
+    }
+
+    public ScoringProfileRegistry(ScoringProfile defaultProfile) {
+        // not validated: a configured half-life below 1 keeps working as 1, as it always has
+        this.profiles = Map.of(DEFAULT, defaultProfile.withName(DEFAULT));
+    }
+
+    public ScoringProfile defaultProfile() {
+        return profiles.get(DEFAULT);
+    }
+
+    /** Profile named by a request's {@code profile} parameter; the default when it is absent or blank. */
+    public ScoringProfile resolve(String name) {
+        return name == null || name.isBlank() ? defaultProfile() : get(name.trim());
+    }
+
+    public ScoringProfile get(String name) {
+        ScoringProfile profile = profiles.get(name);
+        if (profile == null) {
+            throw new InvalidScoringProfileException("Unknown scoring profile '" + name + "'; known: " + profiles.keySet() + ".");
+        }
+        return profile;
+    }
+
+    public List<ScoringProfile> list() {
+        return List.copyOf(profiles.values());
+    }
+
+    /** Adds or replaces {@code name}; returns the stored profile. */
+    public synchronized ScoringProfile put(String name, ScoringProfile profile) {
+        if (name == null || !NAME.matcher(name).matches()) {
+            throw new InvalidScoringProfileException("Profile name '" + name + "' must match " + NAME.pattern() + ".");
+        }
+        ScoringProfile stored = validate(profile.withName(name));
+        Map<String, ScoringProfile> next = new LinkedHashMap<>(profiles);
+        next.put(name, stored);
+        profiles = Collections.unmodifiableMap(next);
+        return stored;
+    }
+
+    public synchronized void remove(String name) {
+        if (DEFAULT.equals(name)) throw new InvalidScoringProfileException("The default profile cannot be removed.");
+        get(name);
+        Map<String, ScoringProfile> next = new LinkedHashMap<>(profiles);
+        next.remove(name);
+        profiles = Collections.unmodifiableMap(next);
+    }
+
+    private static ScoringProfile validate(ScoringProfile p) {
+        if (p.recencyHalfLifeDays() < 1) {
+            throw new InvalidScoringProfileException("recencyHalfLifeDays must be at least 1.");
+        }
+        for (double weight : new double[]{p.starsWeight(), p.forksWeight(), p.recencyWeight(), p.momentumWeight()}) {
+            if (!Double.isFinite(weight)) throw new InvalidScoringProfileException("Weights must be finite numbers.");
+        }
+        return p;
+    }
+}
@@ -0,0 +1,221 @@
+package com.github.popularityscore.service;
+
+import com.github.popularityscore.client.RestTemplateClient;
+import com.github.popularityscore.exception.GitHubTimeoutException;
+import com.github.popularityscore.model.GitHubRepositoryData;
+import com.github.popularityscore.model.GitHubSearchResponse;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Micro-batches concurrent first-page searches that share the same {@code created_after}.
+ *
+ * Requests arriving within {@code window-ms} are merged into one GitHub query with several
+ * {@code language:} qualifiers (per_page=100), and the items are split back by language.
+ * Merging is exact only when the combined top-100 holds at least {@code perPage} items of a
+ * language, or is the complete result set; any other request falls back to its own query.
+ * Identical requests in the same window share one call (largest perPage wins).
+ *
+ * A caller waits at most {@code timeout-ms} for its batch (504 after that), and every waiting
+ * caller is failed when the batcher shuts down, so no request thread is left parked.
+ */
+@Slf4j
+@Component
+public class SearchRequestBatcher {
+
+    static final int COMBINED_PAGE_SIZE = 100;
+
+    private final RestTemplateClient restTemplateClient;
+    private final long windowMs;
+    private final int maxLanguages;
+    private final long timeoutMs;
+    private final ScheduledExecutorService scheduler;
+    private final Map<String, Batch> openBatches = new HashMap<>();
+    private final Set<Pending> waiting = ConcurrentHashMap.newKeySet();
+    private volatile boolean closed;
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong upstreamCalls = new AtomicLong();
+
+    public SearchRequestBatcher(RestTemplateClient restTemplateClient,
+                                @Value("${github.batching.window-ms:5}") long windowMs,
+                                @Value("${github.batching.max-languages:5}") int maxLanguages,
+                                @Value("${github.batching.threads:4}") int threads,
+                                @Value("${github.batching.timeout-ms:30000}") long timeoutMs) {
+        this.restTemplateClient = restTemplateClient;
+        this.windowMs = windowMs;
+        this.maxLanguages = Math.max(1, maxLanguages);
+        this.timeoutMs = timeoutMs;
+        this.scheduler = Executors.newScheduledThreadPool(Math.max(1, threads));
+    }
+
+    /** First {@code perPage} repositories of {@code language} created after {@code createdAfter}, by stars (desc). */
+    public List<GitHubRepositoryData> searchFirstPage(String language, String createdAfter, int perPage) {
+        requests.incrementAndGet();
+        Pending pending = new Pending(language.trim(), Math.min(perPage, COMBINED_PAGE_SIZE));
+        Batch full = null;
+        synchronized (openBatches) {
+            if (closed) throw new IllegalStateException("Search batcher is shut down");
+            waiting.add(pending);
+            Batch batch = openBatches.get(createdAfter);
+            if (batch == null) {
+                Batch created = new Batch(createdAfter);
+                openBatches.put(createdAfter, created);
+                scheduler.schedule(() -> flushIfOpen(created), windowMs, TimeUnit.MILLISECONDS);
+                batch = created;
+            }
+            batch.add(pending);
+            if (batch.byLanguage.size() >= maxLanguages) {
+                openBatches.remove(createdAfter);
+                full = batch;
+            }
+        }
+        if (full != null) {
+            Batch toFlush = full;
+            scheduler.execute(() -> flush(toFlush));
+        }
+        try {
+            return pending.future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new GitHubTimeoutException("Batched GitHub search did not answer within " + timeoutMs + " ms", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw new IllegalStateException("Batched GitHub search failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a batched GitHub search", e);
+        } finally {
+            waiting.remove(pending);
+        }
+    }
+
+    /** Upstream calls per request; below 1.0 means merging saved calls. */
+    public double upstreamCallsPerRequest() {
+        long r = requests.get();
+        return r == 0 ? 0.0 : (double) upstreamCalls.get() / r;
+    }
+
+    private void flushIfOpen(Batch batch) {
+        synchronized (openBatches) {
+            if (openBatches.get(batch.createdAfter) != batch) return; // already flushed because it was full
+            openBatches.remove(batch.createdAfter);
+        }
+        flush(batch);
+    }
+
+    private void flush(Batch batch) {
+        try {
+            if (batch.byLanguage.size() == 1) {
+                batch.byLanguage.forEach((key, pendings) -> fetchSingle(batch.createdAfter, pendings));
+                return;
+            }
+            String query = batch.byLanguage.values().stream()
+                    .map(p -> "language:" + p.get(0).language)
+                    .collect(Collectors.joining(" ")) + " created:>" + batch.createdAfter;
+            GitHubSearchResponse response = call(query, COMBINED_PAGE_SIZE);
+            List<GitHubRepositoryData> items = items(response);
+            boolean exhaustive = response != null && response.getTotalCount() <= items.size();
+
+            Map<String, List<GitHubRepositoryData>> demuxed = new HashMap<>();
+            for (GitHubRepositoryData item : items) {
+                if (item.getLanguage() == null) continue;
+                demuxed.computeIfAbsent(key(item.getLanguage()), k -> new ArrayList<>()).add(item);
+            }
+            batch.byLanguage.forEach((key, pendings) -> {
+                List<GitHubRepositoryData> forLanguage = demuxed.getOrDefault(key, List.of());
+                int needed = pendings.stream().mapToInt(p -> p.perPage).max().orElse(0);
+                if (exhaustive || forLanguage.size() >= needed) {
+                    complete(pendings, forLanguage);
+                } else {
+                    fetchSingle(batch.createdAfter, pendings);
+                }
+            });
+            log.debug("Merged {} languages into one search; upstream calls per request = {}",
+                    batch.byLanguage.size(), upstreamCallsPerRequest());
+        } catch (Throwable e) {
+            // whatever went wrong, no caller of this batch may be left waiting
+            batch.byLanguage.values().forEach(pendings -> pendings.forEach(p -> p.future.completeExceptionally(e)));
+            if (e instanceof Error error) throw error;
+        }
+    }
+
+    private void fetchSingle(String createdAfter, List<Pending> pendings) {
+        int needed = pendings.stream().mapToInt(p -> p.perPage).max().orElse(COMBINED_PAGE_SIZE);
+        String query = "language:" + pendings.get(0).language + " created:>" + createdAfter;
+        complete(pendings, items(call(query, needed)));
+    }
+
+    private GitHubSearchResponse call(String query, int perPage) {
+        upstreamCalls.incrementAndGet();
+        return restTemplateClient.searchRepositories(query, 1, perPage);
+    }
+
+    private static void complete(List<Pending> pendings, List<GitHubRepositoryData> items) {
+        for (Pending p : pendings) {
+            p.future.complete(List.copyOf(items.subList(0, Math.min(p.perPage, items.size()))));
+        }
+    }
+
+    private static List<GitHubRepositoryData> items(GitHubSearchResponse response) {
+        return response == null || response.getItems() == null ? List.of() : response.getItems();
+    }
+
+    private static String key(String language) {
+        return language.trim().toLowerCase(Locale.ROOT);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        synchronized (openBatches) {
+            closed = true;
+            openBatches.clear();
+        }
+        IllegalStateException shutdown = new IllegalStateException("Search batcher is shut down");
+        waiting.forEach(p -> p.future.completeExceptionally(shutdown));
+        scheduler.shutdownNow();
+    }
+
+    private static final class Pending {
+        final String language;
+        final int perPage;
+        final CompletableFuture<List<GitHubRepositoryData>> future = new CompletableFuture<>();
+
+        Pending(String language, int perPage) {
+            this.language = language;
+            this.perPage = perPage;
+        }
+    }
+
+    /** Requests for one created_after value, grouped by language (insertion order = query order). */
+    private static final class Batch {
+        final String createdAfter;
+        final Map<String, List<Pending>> byLanguage = new LinkedHashMap<>();
+
+        Batch(String createdAfter) {
+            this.createdAfter = createdAfter;
+        }
+
+        void add(Pending pending) {
+            byLanguage.computeIfAbsent(key(pending.language), k -> new ArrayList<>()).add(pending);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.github.popularityscore.store;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Append-only arena of UTF-8 strings, addressed by an int reference.
+ *
+ * Strings are packed into 64 KiB chunks, each prefixed by its byte length as a varint, so a
+ * repository name costs its UTF-8 length plus one byte instead of a String and its backing
+ * array (~56 bytes of headers and padding). Strings are interned: an open-addressing index of
+ * (hash, reference) pairs, compared against the arena bytes, finds an existing one without
+ * keeping it as a String (8 bytes per slot, at most half full). Nothing is ever freed, which
+ * suits {@link RepositoryIds}: a repository keeps its reference for life.
+ *
+ * Appends take a lock; reads are lock-free. A reference reaches readers through the index slot
+ * or the entry that holds it, both published after the bytes are written, so readers always
+ * see complete bytes.
+ */
+final class NameArena {
+
+    private static final int CHUNK_BITS = 16;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int MAX_LENGTH = CHUNK_SIZE - 3;
+
+    private volatile byte[][] chunks = new byte[16][];
+    // slot: hash << 32 | (reference + 1); 0 is empty. Replaced, never shrunk, when half full.
+    private volatile AtomicLongArray index = new AtomicLongArray(1 << 12);
+    private int indexed;
+    private int chunk = -1;
+    private int pos = CHUNK_SIZE;
+    private long usedBytes;
+
+    /** Reference of {@code value}, storing it on first sight (never negative). */
+    synchronized int intern(String value) {
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        int hash = Arrays.hashCode(utf8);
+        int ref = find(index, utf8, hash);
+        if (ref >= 0) return ref;
+        ref = add(utf8);
+        if (++indexed * 2 > index.length()) index = resized(index);
+        insert(index, hash, ref);
+        return ref;
+    }
+
+    /** Reference of {@code value}, or -1 when it was never interned; stores nothing. */
+    int find(String value) {
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        return find(index, utf8, Arrays.hashCode(utf8));
+    }
+
+    private int find(AtomicLongArray table, byte[] utf8, int hash) {
+        int mask = table.length() - 1;
+        for (int i = spread(hash) & mask; ; i = (i + 1) & mask) {
+            long slot = table.get(i);
+            if (slot == 0) return -1;
+            int ref = (int) slot - 1;
+            if ((int) (slot >>> 32) == hash && equalsAt(ref, utf8)) return ref;
+        }
+    }
+
+    private static void insert(AtomicLongArray table, int hash, int ref) {
+        int mask = table.length() - 1;
+        int i = spread(hash) & mask;
+        while (table.get(i) != 0) i = (i + 1) & mask;
+        table.set(i, ((long) hash << 32) | (ref + 1L));
+    }
+
+    // built aside and published whole, so readers of the old table never see a partial one
+    private static AtomicLongArray resized(AtomicLongArray table) {
+        AtomicLongArray bigger = new AtomicLongArray(table.length() * 2);
+        for (int i = 0; i < table.length(); i++) {
+            long slot = table.get(i);
+            if (slot != 0) insert(bigger, (int) (slot >>> 32), (int) slot - 1);
+        }
+        return bigger;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private boolean equalsAt(int ref, byte[] utf8) {
+        byte[] buf = chunks[ref >>> CHUNK_BITS];
+        int p = ref & (CHUNK_SIZE - 1);
+        int length = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = buf[p++];
+            length |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return length == utf8.length && Arrays.equals(buf, p, p + length, utf8, 0, length);
+    }
+
+    private int add(byte[] utf8) {
+        if (utf8.length > MAX_LENGTH) {
+            throw new IllegalArgumentException("Name longer than " + MAX_LENGTH + " bytes");
+        }
+        if (pos + utf8.length + 3 > CHUNK_SIZE) {
+            if (chunk == Short.MAX_VALUE) throw new IllegalStateException("Name arena is full");
+            byte[][] current = chunks;
+            if (++chunk == current.length) current = Arrays.copyOf(current, current.length * 2);
+            current[chunk] = new byte[CHUNK_SIZE];
+            chunks = current;
+            pos = 0;
+        }
+        byte[] buf = chunks[chunk];
+        int ref = (chunk << CHUNK_BITS) | pos;
+        int length = utf8.length;
+        while ((length & ~0x7F) != 0) {
+            buf[pos++] = (byte) ((length & 0x7F) | 0x80);
+            length >>>= 7;
+        }
+        buf[pos++] = (byte) length;
+        System.arraycopy(utf8, 0, buf, pos, utf8.length);
+        pos += utf8.length;
+        usedBytes += pos - (ref & (CHUNK_SIZE - 1));
+        return ref;
+    }
+
+    String get(int ref) {
+        byte[] buf = chunks[ref >>> CHUNK_BITS];
+        int p = ref & (CHUNK_SIZE - 1);
+        int length = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = buf[p++];
+            length |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return new String(buf, p, length, StandardCharsets.UTF_8);
+    }
+
+    /** Bytes holding strings, excluding the unused tail of the current chunk. */
+    synchronized long usedBytes() {
+        return usedBytes;
+    }
+}
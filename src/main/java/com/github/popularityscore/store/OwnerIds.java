@@ -0,0 +1,52 @@
+package com.github.popularityscore.store;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interns repository owners (the part of {@code fullName} before '/') into dense int ids, so
+ * aggregations group by an int instead of splitting and hashing strings on every request.
+ * Ids are never reused; lookups are lock-free, only new owners take a lock.
+ */
+public final class OwnerIds {
+
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private volatile String[] names = new String[1024];
+    private int next;
+
+    /** Id of the owner of {@code fullName}, assigning a new one on first sight; -1 for a null name. */
+    public int ofFullName(String fullName) {
+        if (fullName == null) return -1;
+        int slash = fullName.indexOf('/');
+        return intern(slash < 0 ? fullName : fullName.substring(0, slash));
+    }
+
+    public int intern(String owner) {
+        Integer id = ids.get(owner);
+        if (id != null) return id;
+        synchronized (this) {
+            id = ids.get(owner);
+            if (id != null) return id;
+            if (next == names.length) names = Arrays.copyOf(names, names.length * 2);
+            names[next] = owner;
+            ids.put(owner, next);
+            return next++;
+        }
+    }
+
+    /** Id of {@code owner}, or -1 when it was never interned. */
+    public int find(String owner) {
+        Integer id = ids.get(owner);
+        return id == null ? -1 : id;
+    }
+
+    public String name(int id) {
+        String[] current = names;
+        return id >= 0 && id < current.length ? current[id] : null;
+    }
+
+    public int size() {
+        return ids.size();
+    }
+}
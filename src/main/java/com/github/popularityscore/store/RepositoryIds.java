@@ -0,0 +1,62 @@
+package com.github.popularityscore.store;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Compact identity of a repository: its owner's {@link OwnerIds} id and its name's
+ * {@link NameArena} reference, packed into one long. The stores key their maps by it, so a
+ * full name is held once, as arena bytes, however many stores track the repository.
+ *
+ * Ids are never reused and names are kept for life; a full name without an owner part
+ * ("repo") is interned whole, with the complemented (negative) reference.
+ */
+@Component
+public class RepositoryIds {
+
+    private final OwnerIds owners = new OwnerIds();
+    private final NameArena names = new NameArena();
+
+    /** Id of {@code fullName}, assigning one on first sight. */
+    public long intern(String fullName) {
+        int slash = fullName.indexOf('/');
+        return slash < 0
+                ? pack(owners.intern(fullName), ~names.intern(fullName))
+                : pack(owners.intern(fullName.substring(0, slash)), names.intern(fullName.substring(slash + 1)));
+    }
+
+    /** Id of {@code fullName}, or -1 when it was never interned; assigns nothing. */
+    public long find(String fullName) {
+        if (fullName == null) return -1;
+        int slash = fullName.indexOf('/');
+        int ownerId = owners.find(slash < 0 ? fullName : fullName.substring(0, slash));
+        if (ownerId < 0) return -1;
+        int nameRef = names.find(slash < 0 ? fullName : fullName.substring(slash + 1));
+        if (nameRef < 0) return -1;
+        return pack(ownerId, slash < 0 ? ~nameRef : nameRef);
+    }
+
+    public String fullName(int ownerId, int nameRef) {
+        return nameRef < 0 ? names.get(~nameRef) : owners.name(ownerId) + "/" + names.get(nameRef);
+    }
+
+    public String ownerName(int ownerId) {
+        return owners.name(ownerId);
+    }
+
+    /** Bytes of repository names held in the arena. */
+    public long nameBytes() {
+        return names.usedBytes();
+    }
+
+    static long pack(int ownerId, int nameRef) {
+        return ((long) ownerId << 32) | (nameRef & 0xFFFFFFFFL);
+    }
+
+    static int ownerId(long id) {
+        return (int) (id >>> 32);
+    }
+
+    static int nameRef(long id) {
+        return (int) id;
+    }
+}
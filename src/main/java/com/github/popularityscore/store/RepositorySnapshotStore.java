@@ -0,0 +1,107 @@
+package com.github.popularityscore.store;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * In-memory star/fork history per repository (keyed by its {@link RepositoryIds} id), one snapshot
+ * per day.
+ *
+ * Snapshots are recorded whenever a repository is scored, so momentum needs no extra upstream
+ * call. Memory is bounded by {@code retention-days} per repository (older snapshots are trimmed)
+ * and by {@code max-repositories} (new repositories are not tracked beyond it, logged once). An
+ * evicted repository keeps its interned name, a few bytes in the shared arena.
+ */
+@Slf4j
+@Component
+public class RepositorySnapshotStore {
+
+    private final Map<Long, SnapshotSeries> series = new ConcurrentHashMap<>();
+    private final RepositoryIds ids;
+    private final int retentionDays;
+    private final int maxRepositories;
+    private final AtomicBoolean fullLogged = new AtomicBoolean();
+
+    public RepositorySnapshotStore(RepositoryIds ids,
+                                   @Value("${popularity.momentum.retention-days:90}") int retentionDays,
+                                   @Value("${popularity.momentum.max-repositories:500000}") int maxRepositories) {
+        this.ids = ids;
+        this.retentionDays = retentionDays;
+        this.maxRepositories = maxRepositories;
+    }
+
+    public void record(String fullName, int stars, int forks) {
+        record(fullName, today(), stars, forks);
+    }
+
+    public void record(String fullName, int epochDay, int stars, int forks) {
+        if (fullName == null) return;
+        long id = ids.find(fullName);
+        SnapshotSeries s = id < 0 ? null : series.get(id);
+        if (s == null) {
+            if (series.size() >= maxRepositories) {
+                if (fullLogged.compareAndSet(false, true)) {
+                    log.warn("Snapshot store is full ({} repositories, popularity.momentum.max-repositories); "
+                            + "momentum of new repositories is not tracked", maxRepositories);
+                }
+                return;
+            }
+            s = series.computeIfAbsent(id < 0 ? ids.intern(fullName) : id, k -> new SnapshotSeries());
+        }
+        synchronized (s) {
+            s.append(epochDay, stars, forks);
+            // trim in steps of a week so re-encoding is amortized
+            if (s.firstDay() < epochDay - retentionDays - 7) {
+                s.trimBefore(epochDay - retentionDays);
+            }
+        }
+    }
+
+    /** Stars gained per day over the last {@code windowDays}; 0 when fewer than two snapshots exist. */
+    public double starsPerDay(String fullName, int windowDays) {
+        long id = ids.find(fullName);
+        SnapshotSeries s = id < 0 ? null : series.get(id);
+        if (s == null) return 0.0;
+        synchronized (s) {
+            return s.starsPerDay(windowDays);
+        }
+    }
+
+    /** Drops repositories not seen within the retention period. */
+    @Scheduled(fixedDelayString = "${popularity.momentum.eviction-interval-ms:3600000}")
+    public void evictExpired() {
+        int cutoff = today() - retentionDays;
+        int before = series.size();
+        series.entrySet().removeIf(e -> {
+            synchronized (e.getValue()) {
+                return e.getValue().lastDay() < cutoff;
+            }
+        });
+        log.debug("Snapshot store: evicted {} repositories, tracking {} ({} bytes encoded)",
+                before - series.size(), series.size(), encodedBytes());
+    }
+
+    public int trackedRepositories() {
+        return series.size();
+    }
+
+    public long encodedBytes() {
+        return series.values().stream().mapToLong(s -> {
+            synchronized (s) {
+                return s.encodedBytes();
+            }
+        }).sum();
+    }
+
+    private static int today() {
+        return (int) LocalDate.now(ZoneOffset.UTC).toEpochDay();
+    }
+}
@@ -0,0 +1,242 @@
+package com.github.popularityscore.store;
+
+import com.github.popularityscore.model.GitHubRepositoryData;
+import com.github.popularityscore.model.ScoreComponents;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Latest known data and raw score of every scored repository, plus a per-language ranking.
+ *
+ * Updating one repository re-positions only that entry in its language's skip list
+ * (O(log n)), so incremental rescoring never re-sorts the whole set.
+ *
+ * Entries keep repository identity compactly, as a {@link RepositoryIds} id: the owner's interned id
+ * and the name's reference in a shared arena, which also key the store, so no full-name string is
+ * kept. {@code fullName} and {@code name} are rebuilt, and {@code htmlUrl} derived, only when an
+ * entry is read for a response ({@link Entry#repo()}); an html_url that is not the usual github.com
+ * one is kept as is.
+ *
+ * At most {@code max-repositories} are stored, and nothing is evicted: once full, known repositories
+ * are still updated but new ones are not stored (logged once), so they are missing from the stored
+ * ranking, the leaderboard and exports.
+ */
+@Slf4j
+@Component
+public class ScoredRepositoryStore {
+
+    // ties are broken by identity ids rather than by name, so comparisons never touch strings
+    private static final Comparator<Entry> BY_SCORE_DESC = Comparator
+            .comparingDouble(Entry::score).reversed()
+            .thenComparingInt(Entry::ownerId)
+            .thenComparingInt(e -> e.nameRef);
+
+    private static final String UNKNOWN_LANGUAGE = "";
+
+    private final Map<Long, Entry> byId = new ConcurrentHashMap<>();
+    private final Map<String, NavigableSet<Entry>> byLanguage = new ConcurrentHashMap<>();
+    private final Map<String, String> languages = new ConcurrentHashMap<>();
+    private final RepositoryIds ids;
+    private final int maxRepositories;
+    private final AtomicBoolean fullLogged = new AtomicBoolean();
+
+    /**
+     * One stored repository with its raw score, interned owner id (see {@link RepositoryIds}) and the
+     * components the score was computed from (null when stored without them).
+     */
+    public final class Entry {
+
+        private final double score;
+        private final int ownerId;
+        // arena reference of the name after '/'; ~ref (negative) when the full name has no owner part
+        private final int nameRef;
+        private final int stars;
+        private final int forks;
+        private final String updatedAt;
+        private final String language;
+        private final String htmlUrl; // null when it is GITHUB_WEB_URL + fullName
+        private final ScoreComponents components;
+
+        private Entry(double score, int ownerId, int nameRef, GitHubRepositoryData repo, String htmlUrl,
+                      ScoreComponents components) {
+            this.score = score;
+            this.ownerId = ownerId;
+            this.nameRef = nameRef;
+            this.stars = repo == null ? 0 : repo.getStargazersCount();
+            this.forks = repo == null ? 0 : repo.getForksCount();
+            this.updatedAt = repo == null ? null : repo.getUpdatedAt();
+            this.language = repo == null || repo.getLanguage() == null ? null
+                    : languages.computeIfAbsent(repo.getLanguage(), l -> l);
+            this.htmlUrl = htmlUrl;
+            this.components = components;
+        }
+
+        private Entry(Entry from, double score) {
+            this.score = score;
+            this.ownerId = from.ownerId;
+            this.nameRef = from.nameRef;
+            this.stars = from.stars;
+            this.forks = from.forks;
+            this.updatedAt = from.updatedAt;
+            this.language = from.language;
+            this.htmlUrl = from.htmlUrl;
+            this.components = from.components;
+        }
+
+        public double score() {
+            return score;
+        }
+
+        public int ownerId() {
+            return ownerId;
+        }
+
+        public ScoreComponents components() {
+            return components;
+        }
+
+        public String language() {
+            return language;
+        }
+
+        public String fullName() {
+            return ids.fullName(ownerId, nameRef);
+        }
+
+        /** Repository data rebuilt from the compact form; allocates, so call it when producing output. */
+        public GitHubRepositoryData repo() {
+            return new GitHubRepositoryData(null, fullName(), htmlUrl, stars, forks, updatedAt, language);
+        }
+    }
+
+    public ScoredRepositoryStore(RepositoryIds ids,
+                                 @Value("${popularity.store.max-repositories:500000}") int maxRepositories) {
+        this.ids = ids;
+        this.maxRepositories = maxRepositories;
+    }
+
+    public boolean put(GitHubRepositoryData repo, double score) {
+        return put(repo, score, null);
+    }
+
+    /** Stores or updates a repository; true when it was not stored before. */
+    public boolean put(GitHubRepositoryData repo, double score, ScoreComponents components) {
+        if (repo == null || repo.getFullName() == null) return false;
+        String name = repo.getFullName();
+        if (byId.size() >= maxRepositories && get(name) == null) {
+            if (fullLogged.compareAndSet(false, true)) {
+                log.warn("Repository store is full ({} repositories, popularity.store.max-repositories); "
+                        + "new repositories are scored but no longer stored", maxRepositories);
+            }
+            return false;
+        }
+        long id = ids.intern(name);
+        boolean[] added = new boolean[1];
+        byId.compute(id, (key, old) -> {
+            added[0] = old == null;
+            if (old != null) ranking(old.language).remove(old);
+            String htmlUrl = repo.getHtmlUrl();
+            if (htmlUrl != null && htmlUrl.equals(GitHubRepositoryData.GITHUB_WEB_URL + name)) htmlUrl = null;
+            Entry updated = new Entry(score, RepositoryIds.ownerId(id), RepositoryIds.nameRef(id), repo, htmlUrl, components);
+            ranking(updated.language).add(updated);
+            return updated;
+        });
+        return added[0];
+    }
+
+    /**
+     * Replaces the score of every stored repository with {@code rescore(entry)}. Each entry is
+     * rescored inside its own {@code compute}, from the data it holds at that moment, so an update
+     * landing concurrently is never overwritten with older data. Returns the number rescored.
+     */
+    public int rescore(ToDoubleFunction<Entry> rescore) {
+        int rescored = 0;
+        for (Long id : byId.keySet()) {
+            Entry updated = byId.computeIfPresent(id, (key, old) -> {
+                ranking(old.language).remove(old);
+                Entry next = new Entry(old, rescore.applyAsDouble(old));
+                ranking(next.language).add(next);
+                return next;
+            });
+            if (updated != null) rescored++;
+        }
+        return rescored;
+    }
+
+    public Entry get(String fullName) {
+        long id = ids.find(fullName);
+        return id < 0 ? null : byId.get(id);
+    }
+
+    /** Best {@code limit} repositories of a language by raw score (desc). */
+    public List<Entry> top(String language, int limit) {
+        NavigableSet<Entry> ranking = byLanguage.get(key(language));
+        if (ranking == null) return List.of();
+        List<Entry> out = new ArrayList<>(Math.min(limit, 1024));
+        for (Entry e : ranking) {
+            if (out.size() >= limit) break;
+            out.add(e);
+        }
+        return out;
+    }
+
+    /**
+     * Live, weakly consistent iterator over a language's ranking (score desc, ties in a fixed
+     * order), starting after the position ({@code afterScore}, {@code afterFullName}); from the top
+     * when {@code afterFullName} is null, and after every entry scoring {@code afterScore} when the
+     * repository is not stored. Copies nothing, so memory does not grow with the ranking.
+     */
+    public Iterator<Entry> iterate(String language, double afterScore, String afterFullName) {
+        NavigableSet<Entry> ranking = byLanguage.get(key(language));
+        if (ranking == null) return Collections.emptyIterator();
+        if (afterFullName == null) return ranking.iterator();
+        Entry known = get(afterFullName);
+        Entry probe = known != null
+                ? new Entry(afterScore, known.ownerId, known.nameRef, null, null, null)
+                : new Entry(afterScore, Integer.MAX_VALUE, Integer.MAX_VALUE, null, null, null);
+        return ranking.tailSet(probe, false).iterator();
+    }
+
+    /** Point-in-time copy of the entries of a language, or of all languages when {@code language} is null. */
+    public Entry[] entries(String language) {
+        if (language == null) return byId.values().toArray(new Entry[0]);
+        NavigableSet<Entry> ranking = byLanguage.get(key(language));
+        return ranking == null ? new Entry[0] : ranking.toArray(new Entry[0]);
+    }
+
+    /** Owner login for an {@link Entry#ownerId()}. */
+    public String ownerName(int ownerId) {
+        return ids.ownerName(ownerId);
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    /** Bytes of repository names held in the shared arena. */
+    public long nameBytes() {
+        return ids.nameBytes();
+    }
+
+    private NavigableSet<Entry> ranking(String language) {
+        return byLanguage.computeIfAbsent(key(language), k -> new ConcurrentSkipListSet<>(BY_SCORE_DESC));
+    }
+
+    private static String key(String language) {
+        return language == null ? UNKNOWN_LANGUAGE : language.trim().toLowerCase(Locale.ROOT);
+    }
+}
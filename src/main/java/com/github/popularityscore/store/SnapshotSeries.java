@@ -0,0 +1,162 @@
+package com.github.popularityscore.store;
+
+import java.util.Arrays;
+
+/**
+ * Star/fork history of one repository, at most one snapshot per day, encoded as deltas.
+ *
+ * Each entry is three varints: days since the previous entry, and zigzag-encoded star and
+ * fork deltas (the first entry is relative to day 0 / 0 stars / 0 forks). A typical daily
+ * snapshot costs 3-5 bytes. Not thread-safe; {@link RepositorySnapshotStore} synchronizes on it.
+ */
+final class SnapshotSeries {
+
+    private byte[] buf = new byte[16];
+    private int size;
+    private int count;
+
+    private int firstDay;
+    private int lastDay;
+    private int lastStars;
+    private int lastForks;
+
+    // state before the last entry, so a same-day snapshot can replace it
+    private int lastEntryOffset;
+    private int prevDay;
+    private int prevStars;
+    private int prevForks;
+
+    /** Appends a snapshot; a second snapshot on the same day replaces the first, older days are ignored. */
+    void append(int day, int stars, int forks) {
+        if (count > 0 && day < lastDay) return;
+        if (count > 0 && day == lastDay) {
+            size = lastEntryOffset;
+            count--;
+            lastDay = prevDay;
+            lastStars = prevStars;
+            lastForks = prevForks;
+        }
+        lastEntryOffset = size;
+        prevDay = lastDay;
+        prevStars = lastStars;
+        prevForks = lastForks;
+
+        writeVarint(day - lastDay);
+        writeVarint(zigzag(stars - lastStars));
+        writeVarint(zigzag(forks - lastForks));
+
+        if (count == 0) firstDay = day;
+        lastDay = day;
+        lastStars = stars;
+        lastForks = forks;
+        count++;
+    }
+
+    /**
+     * Average stars gained per day over the last {@code windowDays} before {@code lastDay}.
+     * Uses the latest snapshot at or before the window start, or the oldest one if history is shorter.
+     */
+    double starsPerDay(int windowDays) {
+        if (count < 2) return 0.0;
+        int target = lastDay - windowDays;
+        int baseDay = firstDay;
+        int baseStars = 0;
+        int day = 0, stars = 0, pos = 0;
+        int[] read = new int[1];
+        boolean first = true;
+        while (pos < size) {
+            day += readVarint(pos, read);
+            pos = read[0];
+            stars += unzigzag(readVarint(pos, read));
+            pos = read[0];
+            readVarint(pos, read); // forks
+            pos = read[0];
+            if (first || day <= target) {
+                baseDay = day;
+                baseStars = stars;
+                first = false;
+            }
+            if (day > target) break;
+        }
+        int span = lastDay - baseDay;
+        return span <= 0 ? 0.0 : (double) (lastStars - baseStars) / span;
+    }
+
+    /** Drops snapshots older than {@code cutoffDay}, keeping the newest one before it as the baseline. */
+    void trimBefore(int cutoffDay) {
+        if (count == 0 || firstDay >= cutoffDay) return;
+        int[] days = new int[count], stars = new int[count], forks = new int[count];
+        int d = 0, s = 0, f = 0, pos = 0;
+        int[] read = new int[1];
+        for (int i = 0; i < count; i++) {
+            d += readVarint(pos, read);
+            pos = read[0];
+            s += unzigzag(readVarint(pos, read));
+            pos = read[0];
+            f += unzigzag(readVarint(pos, read));
+            pos = read[0];
+            days[i] = d;
+            stars[i] = s;
+            forks[i] = f;
+        }
+        int keepFrom = 0;
+        while (keepFrom + 1 < count && days[keepFrom + 1] <= cutoffDay) keepFrom++;
+
+        int total = count;
+        buf = new byte[Math.max(16, size)];
+        size = 0;
+        count = 0;
+        lastDay = lastStars = lastForks = 0;
+        for (int i = keepFrom; i < total; i++) {
+            append(days[i], stars[i], forks[i]);
+        }
+        buf = Arrays.copyOf(buf, Math.max(16, size));
+    }
+
+    int firstDay() {
+        return firstDay;
+    }
+
+    int lastDay() {
+        return lastDay;
+    }
+
+    int size() {
+        return count;
+    }
+
+    int encodedBytes() {
+        return buf.length;
+    }
+
+    private void writeVarint(int value) {
+        if (size + 5 > buf.length) buf = Arrays.copyOf(buf, buf.length * 2);
+        while ((value & ~0x7F) != 0) {
+            buf[size++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buf[size++] = (byte) value;
+    }
+
+    /** Reads a varint at {@code pos}; the position after it is returned in {@code next[0]}. */
+    private int readVarint(int pos, int[] next) {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = buf[pos++];
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        next[0] = pos;
+        return value;
+    }
+
+    private static int zigzag(int v) {
+        return (v << 1) ^ (v >> 31);
+    }
+
+    private static int unzigzag(int v) {
+        return (v >>> 1) ^ -(v & 1);
+    }
+}
@@ -1,6 +1,10 @@
 package com.github.popularityscore.service;
 
 import com.github.popularityscore.model.GitHubRepositoryData;
+import com.github.popularityscore.model.ScoringProfile;
+import com.github.popularityscore.store.RepositoryIds;
+import com.github.popularityscore.store.RepositorySnapshotStore;
+import com.github.popularityscore.store.ScoredRepositoryStore;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -25,7 +29,10 @@ class PopularityScoreServiceTest {
     @BeforeEach
     void setUp() {
         // Initialize with test weights
-        service = new PopularityScoreService(0.6, 0.25, 0.15, 90);
+        service = new PopularityScoreService(
+                new ScoringProfileRegistry(new ScoringProfile("default", 0.6, 0.25, 0.15, 90, 0.0)),
+                List.of(7, 30), new ScoreDistributionService(512, 16),
+                new RepositorySnapshotStore(new RepositoryIds(), 90, 1_000), new ScoredRepositoryStore(new RepositoryIds(), 1_000));
     }
 
     // S=10, F=3, D=15  → Expected ≈ 0.909, Actual = 0.9089854166479765
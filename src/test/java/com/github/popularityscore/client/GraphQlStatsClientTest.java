@@ -0,0 +1,101 @@
+package com.github.popularityscore.client;
+
+import com.github.popularityscore.model.GitHubRepositoryData;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests GraphQlStatsClient against a local stub of the GitHub /graphql endpoint.
+ */
+class GraphQlStatsClientTest {
+
+    private static final String STUB_RESPONSE = """
+            {"data":{
+              "r0":{"name":"spring-boot","full_name":"spring-projects/spring-boot","html_url":"https://github.com/spring-projects/spring-boot",
+                    "stargazers_count":75000,"forks_count":40000,"updated_at":"2024-05-01T00:00:00Z",
+                    "primaryLanguage":{"name":"Java"}},
+              "r1":null},
+             "errors":[{"type":"NOT_FOUND","path":["r1"]}]}
+            """;
+
+    private HttpServer server;
+    private final AtomicInteger calls = new AtomicInteger();
+    private final AtomicReference<String> lastBody = new AtomicReference<>();
+    private final AtomicReference<String> lastAuth = new AtomicReference<>();
+
+    @BeforeEach
+    void startStub() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/graphql", exchange -> {
+            calls.incrementAndGet();
+            lastBody.set(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            lastAuth.set(exchange.getRequestHeaders().getFirst("Authorization"));
+            byte[] bytes = STUB_RESPONSE.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(bytes);
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopStub() {
+        server.stop(0);
+    }
+
+    private GraphQlStatsClient client() {
+        return new GraphQlStatsClient("http://127.0.0.1:" + server.getAddress().getPort() + "/graphql", "test-token");
+    }
+
+    // One call resolves the batch; aliased nodes bind into GitHubRepositoryData, unresolved aliases are skipped
+    @Test
+    void fetchStats_bindsAliasedNodes_andSkipsMissing() {
+        List<GitHubRepositoryData> result = client().fetchStats(List.of("spring-projects/spring-boot", "ghost/missing"));
+
+        assertEquals(1, calls.get());
+        assertEquals(1, result.size());
+        GitHubRepositoryData repo = result.get(0);
+        assertEquals("spring-projects/spring-boot", repo.getFullName());
+        assertEquals(75000, repo.getStargazersCount());
+        assertEquals(40000, repo.getForksCount());
+        assertEquals("2024-05-01T00:00:00Z", repo.getUpdatedAt());
+        assertEquals("Java", repo.getLanguage()); // from primaryLanguage { name }
+    }
+
+    // Query uses aliased repository(owner, name) selections with variables and sends the bearer token
+    @Test
+    void fetchStats_sendsAliasedQueryWithVariables() {
+        client().fetchStats(List.of("spring-projects/spring-boot", "ghost/missing"));
+
+        String body = lastBody.get();
+        assertTrue(body.contains("r0: repository(owner: $o0, name: $n0)"));
+        assertTrue(body.contains("r1: repository(owner: $o1, name: $n1)"));
+        assertTrue(body.contains("primaryLanguage { name }"));
+        assertTrue(body.contains("\"o0\":\"spring-projects\""));
+        assertTrue(body.contains("\"n1\":\"missing\""));
+        assertEquals("Bearer test-token", lastAuth.get());
+    }
+
+    @Test
+    void fetchStats_rejectsOversizedBatch() {
+        List<String> names = java.util.stream.IntStream.range(0, GraphQlStatsClient.MAX_BATCH_SIZE + 1)
+                .mapToObj(i -> "owner/repo" + i)
+                .toList();
+
+        assertThrows(IllegalArgumentException.class, () -> client().fetchStats(names));
+        assertEquals(0, calls.get());
+    }
+}
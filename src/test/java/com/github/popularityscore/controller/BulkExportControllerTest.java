@@ -0,0 +1,100 @@
+package com.github.popularityscore.controller;
+
+import com.github.popularityscore.service.BulkExportService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Tests for BulkExportController (/api/v1/repo/export): the export's own async timeout and
+ * Accept-Encoding negotiation.
+ */
+@WebMvcTest(controllers = BulkExportController.class,
+        excludeAutoConfiguration = {
+                org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration.class,
+                org.springframework.boot.autoconfigure.security.servlet.SecurityFilterAutoConfiguration.class,
+                org.springframework.boot.autoconfigure.security.oauth2.client.OAuth2ClientAutoConfiguration.class,
+                org.springframework.boot.autoconfigure.security.oauth2.resource.servlet.OAuth2ResourceServerAutoConfiguration.class
+        },
+        properties = {
+                "spring.mvc.async.request-timeout=50",
+                "popularity.export.timeout-ms=600000"
+        })
+@AutoConfigureMockMvc(addFilters = false)
+@ActiveProfiles("test")
+class BulkExportControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private BulkExportService bulkExportService;
+
+    // an export slower than spring.mvc.async.request-timeout runs under its own limit and completes
+    @Test
+    void slowExport_usesExportTimeoutAndCompletes() throws Exception {
+        when(bulkExportService.export(eq("Java"), any(), any(), any(), eq(BulkExportService.Format.NDJSON), any()))
+                .thenAnswer(invocation -> {
+                    OutputStream out = invocation.getArgument(5);
+                    for (int i = 0; i < 3; i++) {
+                        Thread.sleep(100);
+                        out.write(("{\"row\":" + i + "}\n").getBytes(StandardCharsets.UTF_8));
+                    }
+                    return 3L;
+                });
+
+        MvcResult started = mockMvc.perform(get("/api/v1/repo/export").param("language", "JAVA"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertEquals(600_000L, started.getRequest().getAsyncContext().getTimeout());
+
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(content().string("{\"row\":0}\n{\"row\":1}\n{\"row\":2}\n"));
+    }
+
+    @Test
+    void acceptsGzip_honoursQValues() {
+        assertTrue(BulkExportController.acceptsGzip("gzip"));
+        assertTrue(BulkExportController.acceptsGzip("deflate, GZIP;q=0.5"));
+        assertTrue(BulkExportController.acceptsGzip("br, *"));
+        assertFalse(BulkExportController.acceptsGzip("gzip;q=0"));
+        assertFalse(BulkExportController.acceptsGzip("gzip; q=0.000, *"));
+        assertFalse(BulkExportController.acceptsGzip("*;q=0"));
+        assertFalse(BulkExportController.acceptsGzip("deflate, br"));
+        assertFalse(BulkExportController.acceptsGzip("gzip;q=abc"));
+        assertFalse(BulkExportController.acceptsGzip(null));
+    }
+
+    @Test
+    void export_refusedGzip_isSentUncompressed() throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/v1/repo/export").param("language", "JAVA")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, identity"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING));
+    }
+}
@@ -1,8 +1,15 @@
 package com.github.popularityscore.controller;
 
 import com.github.popularityscore.enums.GitHubLanguage;
+import com.github.popularityscore.exception.GitHubTimeoutException;
 import com.github.popularityscore.model.PopularityScoreResponse;
+import com.github.popularityscore.model.ScoringProfile;
 import com.github.popularityscore.service.RepositorySearchService;
+import com.github.popularityscore.service.ScoringProfileRegistry;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,14 +19,19 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -44,9 +56,19 @@ class PopularityScoreControllerTest {
     @Autowired
     private MockMvc mockMvc;
 
+    private static final ScoringProfile DEFAULT_PROFILE = new ScoringProfile("default", 0.6, 0.25, 0.15, 90, 0.0);
+
     @MockBean
     private RepositorySearchService repositorySearchService;
 
+    @MockBean
+    private ScoringProfileRegistry scoringProfileRegistry;
+
+    @BeforeEach
+    void resolveDefaultProfile() {
+        when(scoringProfileRegistry.resolve(any())).thenReturn(DEFAULT_PROFILE);
+    }
+
     // 1) Happy path — all params provided, 200 OK, service invoked with displayName + ISO date
     @Test
     void getPopularityScore_ok() throws Exception {
@@ -56,7 +78,7 @@ class PopularityScoreControllerTest {
         int perPage = 50;
 
         List<PopularityScoreResponse> stub = Collections.emptyList();
-        when(repositorySearchService.search(eq(lang.getDisplayName()), eq(createdAfter), eq(page), eq(perPage)))
+        when(repositorySearchService.search(eq(lang.getDisplayName()), eq(createdAfter), eq(page), eq(perPage), eq(DEFAULT_PROFILE)))
                 .thenReturn(stub);
 
         mockMvc.perform(get("/api/v1/repo/popularityScore")
@@ -69,7 +91,7 @@ class PopularityScoreControllerTest {
                 .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$", hasSize(0)));
 
-        verify(repositorySearchService).search(eq(lang.getDisplayName()), eq(createdAfter), eq(page), eq(perPage));
+        verify(repositorySearchService).search(eq(lang.getDisplayName()), eq(createdAfter), eq(page), eq(perPage), eq(DEFAULT_PROFILE));
     }
 
     // 2) Future date — controller throws InvalidDateException → expect 400 (adjust if mapped differently)
@@ -95,7 +117,7 @@ class PopularityScoreControllerTest {
         GitHubLanguage lang = GitHubLanguage.JAVA;
         String createdAfter = "2024-01-01";
 
-        when(repositorySearchService.search(anyString(), anyString(), anyInt(), anyInt()))
+        when(repositorySearchService.search(anyString(), anyString(), anyInt(), anyInt(), any()))
                 .thenReturn(Collections.emptyList());
 
         mockMvc.perform(get("/api/v1/repo/popularityScore")
@@ -113,7 +135,8 @@ class PopularityScoreControllerTest {
                 langCaptor.capture(),
                 dateCaptor.capture(),
                 pageCaptor.capture(),
-                perPageCaptor.capture()
+                perPageCaptor.capture(),
+                eq(DEFAULT_PROFILE)
         );
 
         // Language is passed as displayName from controller
@@ -129,7 +152,7 @@ class PopularityScoreControllerTest {
         GitHubLanguage lang = GitHubLanguage.JAVA;
         String createdAfter = "2023-12-31";
 
-        when(repositorySearchService.search(anyString(), anyString(), anyInt(), anyInt()))
+        when(repositorySearchService.search(anyString(), anyString(), anyInt(), anyInt(), any()))
                 .thenReturn(Collections.emptyList());
 
         mockMvc.perform(get("/api/v1/repo/popularityScore")
@@ -137,7 +160,7 @@ class PopularityScoreControllerTest {
                         .param("created_after", createdAfter))
                 .andExpect(status().isOk());
 
-        verify(repositorySearchService, times(1)).search(anyString(), anyString(), anyInt(), anyInt());
+        verify(repositorySearchService, times(1)).search(anyString(), anyString(), anyInt(), anyInt(), any());
     }
 
     // 5) Verifies JSON body shape when service returns data
@@ -157,7 +180,7 @@ class PopularityScoreControllerTest {
                 .normalizedScore(88.0)
                 .build();
 
-        when(repositorySearchService.search(eq(lang.getDisplayName()), eq(createdAfter), eq(10), eq(100)))
+        when(repositorySearchService.search(eq(lang.getDisplayName()), eq(createdAfter), eq(10), eq(100), eq(DEFAULT_PROFILE)))
                 .thenReturn(List.of(r));
 
         mockMvc.perform(get("/api/v1/repo/popularityScore")
@@ -185,4 +208,138 @@ class PopularityScoreControllerTest {
 
         verifyNoInteractions(repositorySearchService);
     }
+
+    // 7) Field projection — only the requested properties are serialized
+    @Test
+    void getPopularityScore_fieldsParam_projectsResponse() throws Exception {
+        GitHubLanguage lang = GitHubLanguage.JAVA;
+        String createdAfter = "2024-01-01";
+
+        when(repositorySearchService.search(anyString(), anyString(), anyInt(), anyInt(), any()))
+                .thenReturn(List.of(sampleResponse()));
+
+        mockMvc.perform(get("/api/v1/repo/popularityScore")
+                        .param("language", lang.name())
+                        .param("created_after", createdAfter)
+                        .param("fields", "fullName,normalizedScore"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].fullName").value("owner/repo1"))
+                .andExpect(jsonPath("$[0].normalizedScore").value(88.0))
+                .andExpect(jsonPath("$[0].name").doesNotExist())
+                .andExpect(jsonPath("$[0].htmlUrl").doesNotExist());
+    }
+
+    // 8) CBOR negotiation — Accept: application/cbor returns a CBOR body with the same field names
+    @Test
+    void getPopularityScore_acceptCbor_returnsCbor() throws Exception {
+        GitHubLanguage lang = GitHubLanguage.JAVA;
+        String createdAfter = "2024-01-01";
+
+        when(repositorySearchService.search(anyString(), anyString(), anyInt(), anyInt(), any()))
+                .thenReturn(List.of(sampleResponse()));
+
+        byte[] body = mockMvc.perform(get("/api/v1/repo/popularityScore")
+                        .param("language", lang.name())
+                        .param("created_after", createdAfter)
+                        .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode tree = new ObjectMapper(new CBORFactory()).readTree(body);
+        assertEquals("owner/repo1", tree.get(0).get("fullName").asText());
+        assertEquals(100, tree.get(0).get("stars").asInt());
+    }
+
+    // 9) Full ranking — delegates to searchAll with displayName + ISO date
+    @Test
+    void getFullPopularityRanking_ok() throws Exception {
+        GitHubLanguage lang = GitHubLanguage.JAVA;
+        String createdAfter = "2024-01-01";
+
+        when(repositorySearchService.searchAll(eq(lang.getDisplayName()), eq(createdAfter), eq(DEFAULT_PROFILE)))
+                .thenReturn(List.of(sampleResponse()));
+
+        mockMvc.perform(get("/api/v1/repo/popularityScore/all")
+                        .param("language", lang.name())
+                        .param("created_after", createdAfter))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].fullName").value("owner/repo1"));
+
+        verify(repositorySearchService).searchAll(eq(lang.getDisplayName()), eq(createdAfter), eq(DEFAULT_PROFILE));
+    }
+
+    // 10) Async path — request starts async processing and completes with the service result
+    @Test
+    void getPopularityScoreAsync_ok() throws Exception {
+        GitHubLanguage lang = GitHubLanguage.JAVA;
+        String createdAfter = "2024-01-01";
+
+        when(repositorySearchService.searchAsync(eq(lang.getDisplayName()), eq(createdAfter), eq(1), eq(10), eq(Duration.ofMillis(500)), eq(DEFAULT_PROFILE)))
+                .thenReturn(CompletableFuture.completedFuture(List.of(sampleResponse())));
+
+        MvcResult started = mockMvc.perform(get("/api/v1/repo/popularityScore/async")
+                        .param("language", lang.name())
+                        .param("created_after", createdAfter)
+                        .param("page", "1")
+                        .param("perPage", "10")
+                        .param("timeoutMs", "500"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].fullName").value("owner/repo1"));
+    }
+
+    // 11) Async path — upstream timeout surfaces as 504
+    @Test
+    void getPopularityScoreAsync_upstreamTimeout_returnsGatewayTimeout() throws Exception {
+        GitHubLanguage lang = GitHubLanguage.JAVA;
+
+        when(repositorySearchService.searchAsync(anyString(), anyString(), anyInt(), anyInt(), any(), any()))
+                .thenReturn(CompletableFuture.failedFuture(
+                        new GitHubTimeoutException("GitHub search did not answer within 500 ms")));
+
+        MvcResult started = mockMvc.perform(get("/api/v1/repo/popularityScore/async")
+                        .param("language", lang.name())
+                        .param("created_after", "2024-01-01"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isGatewayTimeout());
+    }
+
+    // 12) Profile — the bound query parameter is resolved once and passed down explicitly
+    @Test
+    void getStoredPopularityRanking_passesResolvedProfile() throws Exception {
+        ScoringProfile forksOnly = new ScoringProfile("forks", 0.0, 1.0, 0.0, 90, 0.0);
+        when(scoringProfileRegistry.resolve("forks")).thenReturn(forksOnly);
+        when(repositorySearchService.searchStored(anyString(), anyInt(), any()))
+                .thenReturn(List.of(sampleResponse()));
+
+        mockMvc.perform(get("/api/v1/repo/popularityScore/stored")
+                        .param("language", GitHubLanguage.JAVA.name())
+                        .param("profile", "forks"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].fullName").value("owner/repo1"));
+
+        verify(repositorySearchService).searchStored(eq(GitHubLanguage.JAVA.getDisplayName()), eq(100), eq(forksOnly));
+    }
+
+    private static PopularityScoreResponse sampleResponse() {
+        return PopularityScoreResponse.builder()
+                .name("repo1")
+                .fullName("owner/repo1")
+                .htmlUrl("https://github.com/owner/repo1")
+                .stars(100)
+                .forks(10)
+                .updatedAt("2024-05-01T00:00:00Z")
+                .rawScore(1.58)
+                .normalizedScore(88.0)
+                .build();
+    }
 }
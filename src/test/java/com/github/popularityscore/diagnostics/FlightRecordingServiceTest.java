@@ -0,0 +1,71 @@
+package com.github.popularityscore.diagnostics;
+
+import com.github.popularityscore.exception.RecordingConflictException;
+import com.github.popularityscore.exception.RecordingNotFoundException;
+import com.github.popularityscore.model.RecordingResponse;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for FlightRecordingService against the JVM's own Flight Recorder.
+ */
+class FlightRecordingServiceTest {
+
+    private final FlightRecordingService service = new FlightRecordingService(600, 10, 1, 5);
+
+    @AfterEach
+    void tearDown() {
+        service.closeAll();
+    }
+
+    @Test
+    void start_isBoundedAndLimitedToMaxActive() {
+        RecordingResponse started = service.start(FlightRecordingService.Settings.DEFAULT, Duration.ofHours(2), 500L);
+
+        assertEquals("RUNNING", started.getState());
+        assertEquals(600, started.getDurationSeconds());                 // capped by max-duration-seconds
+        assertEquals(10L * 1024 * 1024, started.getMaxSizeBytes());      // capped by max-size-mb
+        assertThrows(RecordingConflictException.class,
+                () -> service.start(FlightRecordingService.Settings.DEFAULT, Duration.ofSeconds(10), null));
+    }
+
+    @Test
+    void dump_containsApplicationEvents() throws Exception {
+        RecordingResponse started = service.start(FlightRecordingService.Settings.DEFAULT, Duration.ofSeconds(60), null);
+        ScoringEvent event = new ScoringEvent();
+        event.begin();
+        event.stage = "rank";
+        event.itemCount = 42;
+        event.commit();
+
+        Path file = service.dump(started.getId());
+        try {
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+            assertTrue(events.stream().anyMatch(e -> e.getEventType().getName().equals("com.github.popularityscore.Scoring")
+                    && e.getInt("itemCount") == 42));
+            // environment and system properties would expose GITHUB_TOKEN
+            assertTrue(events.stream().noneMatch(e -> e.getEventType().getName().equals("jdk.InitialEnvironmentVariable")
+                    || e.getEventType().getName().equals("jdk.InitialSystemProperty")));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void stopAndDelete_unknownIdIsNotFound() {
+        RecordingResponse started = service.start(FlightRecordingService.Settings.DEFAULT, Duration.ofSeconds(60), null);
+
+        assertEquals("STOPPED", service.stop(started.getId()).getState());
+        service.delete(started.getId());
+        assertThrows(RecordingNotFoundException.class, () -> service.stop(started.getId()));
+    }
+}
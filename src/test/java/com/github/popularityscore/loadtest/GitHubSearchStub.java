@@ -0,0 +1,176 @@
+package com.github.popularityscore.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local stand-in for GitHub's {@code GET /search/repositories}.
+ *
+ * Latency is log-normal, fitted to the configured median and p99. A fraction of calls fail with
+ * 502, and a per-minute budget is reported in the X-RateLimit-* headers; once it is used up,
+ * calls get GitHub's 403 "rate limit exceeded" until the window resets.
+ */
+final class GitHubSearchStub implements AutoCloseable {
+
+    /** 2.326 = z-score of the 99th percentile of a standard normal distribution. */
+    private static final double Z_99 = 2.326;
+
+    record Config(double latencyMedianMs, double latencyP99Ms, double errorRate, int rateLimitPerMinute) {
+
+        static Config fromSystemProperties() {
+            return new Config(
+                    Double.parseDouble(System.getProperty("stub.latency-median-ms", "40")),
+                    Double.parseDouble(System.getProperty("stub.latency-p99-ms", "250")),
+                    Double.parseDouble(System.getProperty("stub.error-rate", "0.0")),
+                    Integer.parseInt(System.getProperty("stub.rate-limit-per-minute", "0")));
+        }
+    }
+
+    private final Config config;
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final double mu;
+    private final double sigma;
+
+    private final AtomicLong windowStartMillis = new AtomicLong(System.currentTimeMillis());
+    private final AtomicInteger usedInWindow = new AtomicInteger();
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicLong rateLimited = new AtomicLong();
+
+    private GitHubSearchStub(Config config) throws IOException {
+        this.config = config;
+        this.mu = Math.log(Math.max(0.001, config.latencyMedianMs()));
+        this.sigma = Math.max(0.0, Math.log(Math.max(config.latencyP99Ms(), config.latencyMedianMs())) - mu) / Z_99;
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        server.createContext("/search/repositories", this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    static GitHubSearchStub start(Config config) throws IOException {
+        return new GitHubSearchStub(config);
+    }
+
+    String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    String summary() {
+        return String.format("stub: %d calls, %d injected errors, %d rate-limited", calls.get(), errors.get(), rateLimited.get());
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        calls.incrementAndGet();
+        try {
+            sleepMillis(Math.exp(mu + sigma * ThreadLocalRandom.current().nextGaussian()));
+
+            int limit = config.rateLimitPerMinute() > 0 ? config.rateLimitPerMinute() : Integer.MAX_VALUE;
+            long now = System.currentTimeMillis();
+            long windowStart = windowStartMillis.get();
+            if (now - windowStart >= 60_000 && windowStartMillis.compareAndSet(windowStart, now)) {
+                usedInWindow.set(0);
+                windowStart = now;
+            }
+            int used = usedInWindow.incrementAndGet();
+            var headers = exchange.getResponseHeaders();
+            headers.set("Content-Type", "application/json; charset=utf-8");
+            headers.set("X-RateLimit-Resource", "search");
+            headers.set("X-RateLimit-Limit", String.valueOf(limit));
+            headers.set("X-RateLimit-Used", String.valueOf(Math.min(used, limit)));
+            headers.set("X-RateLimit-Remaining", String.valueOf(Math.max(0, limit - used)));
+            headers.set("X-RateLimit-Reset", String.valueOf((windowStart + 60_000) / 1000));
+
+            if (used > limit) {
+                rateLimited.incrementAndGet();
+                respond(exchange, 403, "{\"message\":\"API rate limit exceeded\",\"documentation_url\":\"https://docs.github.com/rest/overview/rate-limits-for-the-rest-api\"}");
+                return;
+            }
+            if (ThreadLocalRandom.current().nextDouble() < config.errorRate()) {
+                errors.incrementAndGet();
+                respond(exchange, 502, "{\"message\":\"Server Error\"}");
+                return;
+            }
+            Map<String, String> params = params(exchange.getRequestURI().getRawQuery());
+            int perPage = Math.min(100, Integer.parseInt(params.getOrDefault("per_page", "30")));
+            int page = Integer.parseInt(params.getOrDefault("page", "1"));
+            respond(exchange, 200, searchResponse(language(params.getOrDefault("q", "")), page, perPage));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /** Deterministic page of {@code perPage} repositories, sorted by stars (desc) across pages. */
+    private static String searchResponse(String language, int page, int perPage) {
+        StringBuilder json = new StringBuilder(perPage * 220 + 64);
+        json.append("{\"total_count\":1000,\"incomplete_results\":false,\"items\":[");
+        for (int i = 0; i < perPage; i++) {
+            int rank = (page - 1) * perPage + i;
+            String name = language.toLowerCase() + "-repo-" + rank;
+            if (i > 0) json.append(',');
+            json.append("{\"name\":\"").append(name)
+                    .append("\",\"full_name\":\"owner-").append(rank % 97).append('/').append(name)
+                    .append("\",\"html_url\":\"https://github.com/owner-").append(rank % 97).append('/').append(name)
+                    .append("\",\"stargazers_count\":").append(100_000 - rank * 10)
+                    .append(",\"forks_count\":").append(20_000 - rank * 3)
+                    .append(",\"updated_at\":\"2024-0").append(1 + rank % 9).append("-15T12:00:00Z\"")
+                    .append(",\"language\":\"").append(language).append("\"}");
+        }
+        return json.append("]}").toString();
+    }
+
+    private static String language(String query) {
+        for (String term : query.split(" ")) {
+            if (term.startsWith("language:")) return term.substring("language:".length());
+        }
+        return "Java";
+    }
+
+    private static Map<String, String> params(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery == null) return params;
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                params.put(pair.substring(0, eq), URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return params;
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static void sleepMillis(double millis) {
+        try {
+            TimeUnit.MICROSECONDS.sleep((long) (millis * 1000));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
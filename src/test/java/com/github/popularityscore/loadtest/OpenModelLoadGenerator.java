@@ -0,0 +1,130 @@
+package com.github.popularityscore.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongFunction;
+
+/**
+ * Open-model (constant arrival rate) HTTP load generator in the style of wrk2.
+ *
+ * Request i is due at {@code start + i / rate} whether or not earlier requests have completed,
+ * and its latency is measured from that due time rather than from when it was actually sent.
+ * A stalled server therefore shows up as queueing delay in the percentiles instead of silently
+ * lowering the offered load (coordinated omission).
+ */
+final class OpenModelLoadGenerator {
+
+    /** Latencies in microseconds, up to one minute, 3 significant digits. */
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    record Result(String name, double targetRate, double durationSeconds, long ok, long errors, long timeouts,
+                  Histogram latencyMicros) {
+
+        double achievedRate() {
+            return (ok + errors) / durationSeconds;
+        }
+
+        double percentileMillis(double percentile) {
+            return latencyMicros.getValueAtPercentile(percentile) / 1000.0;
+        }
+
+        void print(PrintStream out) {
+            out.printf("%n== %s ==%n", name);
+            out.printf("rate     target %.1f/s, achieved %.1f/s over %.0f s (%d ok, %d errors, %d timeouts)%n",
+                    targetRate, achievedRate(), durationSeconds, ok, errors, timeouts);
+            out.printf("latency  p50 %.1f ms  p90 %.1f ms  p99 %.1f ms  p99.9 %.1f ms  max %.1f ms%n",
+                    percentileMillis(50), percentileMillis(90), percentileMillis(99), percentileMillis(99.9),
+                    latencyMicros.getMaxValue() / 1000.0);
+        }
+
+        /** Full percentile distribution in HdrHistogram's .hgrm format (values in ms), for plotting and diffing. */
+        void writeHgrm(Path file) throws IOException {
+            Files.createDirectories(file.getParent());
+            try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+                latencyMicros.outputPercentileDistribution(out, 1000.0);
+            }
+        }
+    }
+
+    private final HttpClient client;
+    private final ExecutorService callbacks = Executors.newFixedThreadPool(4);
+
+    OpenModelLoadGenerator() {
+        this.client = HttpClient.newBuilder()
+                .executor(callbacks)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    /**
+     * Offers {@code ratePerSecond} requests for {@code warmup + duration}; only requests due after the
+     * warm-up are recorded. {@code uris} maps the request index to its URI.
+     */
+    Result run(String name, LongFunction<URI> uris, double ratePerSecond, Duration warmup, Duration duration,
+               Duration timeout) {
+        Histogram latency = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+        AtomicLong ok = new AtomicLong();
+        AtomicLong errors = new AtomicLong();
+        AtomicLong timeouts = new AtomicLong();
+        ConcurrentLinkedQueue<CompletableFuture<?>> inFlight = new ConcurrentLinkedQueue<>();
+
+        long periodNanos = (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond);
+        long start = System.nanoTime();
+        long recordFrom = start + warmup.toNanos();
+        long end = recordFrom + duration.toNanos();
+
+        for (long i = 0; ; i++) {
+            long due = start + i * periodNanos;
+            if (due >= end) break;
+            long delay = due - System.nanoTime();
+            if (delay > 0) LockSupport.parkNanos(delay);
+
+            boolean recorded = due >= recordFrom;
+            HttpRequest request = HttpRequest.newBuilder(uris.apply(i)).timeout(timeout).GET().build();
+            CompletableFuture<?> call = client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        if (!recorded) return;
+                        long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - due);
+                        latency.recordValue(Math.min(micros, HIGHEST_TRACKABLE_MICROS));
+                        if (error != null) {
+                            (error.getCause() instanceof HttpTimeoutException ? timeouts : errors).incrementAndGet();
+                        } else if (response.statusCode() >= 200 && response.statusCode() < 300) {
+                            ok.incrementAndGet();
+                        } else {
+                            errors.incrementAndGet();
+                        }
+                    });
+            inFlight.add(call);
+            inFlight.removeIf(CompletableFuture::isDone);
+        }
+        try {
+            CompletableFuture.allOf(inFlight.toArray(new CompletableFuture[0]))
+                    .get(timeout.toMillis() + 1000, TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            // stragglers are already counted as timeouts by the request timeout
+        }
+        return new Result(name, ratePerSecond, duration.toNanos() / 1e9, ok.get(), errors.get(), timeouts.get(), latency);
+    }
+
+    void shutdown() {
+        callbacks.shutdownNow();
+    }
+}
@@ -0,0 +1,104 @@
+package com.github.popularityscore.loadtest;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * End-to-end load test: the full application (security disabled, quota on) against a local GitHub stub,
+ * driven at a constant arrival rate. Excluded from the default build; run with
+ *
+ *   mvn -B -Ploadtest test -Dload.rate=200 -Dload.duration-seconds=60 -Dstub.latency-p99-ms=400
+ *
+ * Percentile distributions are written to target/load-test/*.hgrm. Set load.max-p99-ms and
+ * load.min-success-ratio to turn the report into a gate.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "app.security.enabled=false",
+        // the quota stays on, so the generator (one client, ip:127.0.0.1) queues for concurrency
+        // slots like real callers do; the rate is high enough not to be the bottleneck
+        "app.quota.upstream-per-minute=1000000",
+        "app.quota.burst=10000",
+        "app.quota.global-burst=10000",
+        "app.quota.max-concurrent-per-client=64",
+        "logging.level.root=WARN"
+})
+class SearchLoadTest {
+
+    private static final List<String> LANGUAGES = List.of("Java", "Go", "Rust", "Python", "Kotlin");
+
+    private static GitHubSearchStub stub;
+    private static OpenModelLoadGenerator generator;
+
+    @LocalServerPort
+    private int port;
+
+    @BeforeAll
+    static void startStub() throws IOException {
+        if (stub == null) stub = GitHubSearchStub.start(GitHubSearchStub.Config.fromSystemProperties());
+        generator = new OpenModelLoadGenerator();
+    }
+
+    @AfterAll
+    static void stopStub() {
+        System.out.println(stub.summary());
+        generator.shutdown();
+        stub.close();
+    }
+
+    @DynamicPropertySource
+    static void githubStub(DynamicPropertyRegistry registry) throws IOException {
+        // runs before @BeforeAll, when the application context is created
+        if (stub == null) stub = GitHubSearchStub.start(GitHubSearchStub.Config.fromSystemProperties());
+        registry.add("github.api.base-url", stub::baseUrl);
+    }
+
+    @Test
+    void popularityScore_constantArrivalRate() throws IOException {
+        run("popularityScore", "/api/v1/repo/popularityScore");
+    }
+
+    @Test
+    void popularityScoreAsync_constantArrivalRate() throws IOException {
+        run("popularityScore-async", "/api/v1/repo/popularityScore/async");
+    }
+
+    private void run(String name, String path) throws IOException {
+        OpenModelLoadGenerator.Result result = generator.run(name,
+                i -> URI.create("http://127.0.0.1:" + port + path
+                        + "?language=" + LANGUAGES.get((int) (i % LANGUAGES.size()))
+                        + "&created_after=2024-01-01&page=" + (1 + i % 3) + "&perPage=100"),
+                Double.parseDouble(System.getProperty("load.rate", "50")),
+                Duration.ofSeconds(Long.getLong("load.warmup-seconds", 5)),
+                Duration.ofSeconds(Long.getLong("load.duration-seconds", 20)),
+                Duration.ofSeconds(Long.getLong("load.timeout-seconds", 30)));
+
+        result.print(System.out);
+        result.writeHgrm(Path.of("target", "load-test", name + ".hgrm"));
+
+        long completed = result.ok() + result.errors() + result.timeouts();
+        assertTrue(result.ok() > 0, "no request succeeded");
+        double minSuccess = Double.parseDouble(System.getProperty("load.min-success-ratio", "0"));
+        assertTrue(result.ok() >= minSuccess * completed,
+                "success ratio " + (double) result.ok() / completed + " below " + minSuccess);
+        String maxP99 = System.getProperty("load.max-p99-ms");
+        if (maxP99 != null) {
+            assertTrue(result.percentileMillis(99) <= Double.parseDouble(maxP99),
+                    "p99 " + result.percentileMillis(99) + " ms above " + maxP99 + " ms");
+        }
+    }
+}
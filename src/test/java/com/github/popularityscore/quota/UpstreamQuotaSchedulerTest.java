@@ -0,0 +1,183 @@
+package com.github.popularityscore.quota;
+
+import com.github.popularityscore.exception.QuotaExceededException;
+import com.github.popularityscore.quota.UpstreamQuotaScheduler.Permit;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for UpstreamQuotaScheduler. A max wait of 0 makes an exhausted share fail
+ * immediately, so most tests never sleep.
+ */
+class UpstreamQuotaSchedulerTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private UpstreamQuotaScheduler scheduler(int burst, int maxConcurrent, String weights) {
+        return new UpstreamQuotaScheduler(registry, true, 60, burst, 10, maxConcurrent, 0, 60_000, 100, weights);
+    }
+
+    @AfterEach
+    void clearRequest() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void acquire_beyondBurst_isRejectedAndCounted() {
+        UpstreamQuotaScheduler scheduler = scheduler(2, 10, "");
+
+        scheduler.acquire("alice").close();
+        scheduler.acquire("alice").close();
+        assertThrows(QuotaExceededException.class, () -> scheduler.acquire("alice"));
+
+        assertEquals(2.0, registry.counter("upstream.quota.granted", "client", "alice").count());
+        assertEquals(1.0, registry.counter("upstream.quota.rejected", "client", "alice").count());
+    }
+
+    // a heavy client exhausting its share does not consume another client's share
+    @Test
+    void exhaustedClient_doesNotBlockOthers() {
+        UpstreamQuotaScheduler scheduler = scheduler(1, 10, "");
+
+        scheduler.acquire("alice").close();
+        assertThrows(QuotaExceededException.class, () -> scheduler.acquire("alice"));
+        assertDoesNotThrow(() -> scheduler.acquire("bob").close());
+    }
+
+    @Test
+    void activeClients_shareTheRateByWeight() {
+        UpstreamQuotaScheduler scheduler = scheduler(5, 10, "alice=3, bob=1");
+
+        scheduler.acquire("alice").close();
+        scheduler.acquire("bob").close();
+        scheduler.rebalance();
+
+        assertEquals(45.0, scheduler.ratePerMinute("alice"), 0.01);
+        assertEquals(15.0, scheduler.ratePerMinute("bob"), 0.01);
+    }
+
+    @Test
+    void acquire_overConcurrencyLimit_isRejectedUntilReleased() {
+        UpstreamQuotaScheduler scheduler = scheduler(10, 1, "");
+
+        Permit first = scheduler.acquire("alice");
+        assertThrows(QuotaExceededException.class, () -> scheduler.acquire("alice"));
+        first.close();
+        first.close(); // second close must not free a slot it does not hold
+        assertDoesNotThrow(() -> scheduler.acquire("alice"));
+        assertThrows(QuotaExceededException.class, () -> scheduler.acquire("alice"));
+    }
+
+    // more anonymous requests than slots: the extra ones wait for a slot instead of getting 429
+    @Test
+    void anonymousCallersBeyondConcurrencyLimit_queueForASlot() throws Exception {
+        UpstreamQuotaScheduler scheduler = new UpstreamQuotaScheduler(registry, true, 60, 100, 100, 4, 5_000, 60_000, 100, "");
+        int callers = 12;
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<?>> calls = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                calls.add(pool.submit(() -> {
+                    RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+                    try (Permit ignored = scheduler.acquire()) {
+                        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                        TimeUnit.MILLISECONDS.sleep(50);
+                        inFlight.decrementAndGet();
+                    } finally {
+                        RequestContextHolder.resetRequestAttributes();
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> call : calls) call.get(10, TimeUnit.SECONDS); // none rejected
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertTrue(maxInFlight.get() <= 4, "max in flight " + maxInFlight.get());
+        assertEquals(callers, registry.counter("upstream.quota.granted", "client", "ip:127.0.0.1").count());
+        assertEquals(0.0, registry.get("upstream.quota.in_flight").tag("client", "ip:127.0.0.1").gauge().value());
+    }
+
+    @Test
+    void currentClient_keysAnonymousCallersByRemoteAddress() {
+        UpstreamQuotaScheduler scheduler = scheduler(1, 4, "");
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr("192.0.2.7");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        assertEquals("ip:192.0.2.7", scheduler.currentClient());
+        request.addHeader(UpstreamQuotaScheduler.API_KEY_HEADER, "secret");
+        assertTrue(scheduler.currentClient().startsWith("key:"));
+        RequestContextHolder.resetRequestAttributes();
+        assertEquals("anonymous", scheduler.currentClient());
+    }
+
+    // a call that never got a slot gives its token back
+    @Test
+    void slotTimeout_refundsTheToken() {
+        UpstreamQuotaScheduler scheduler = scheduler(2, 1, "");
+
+        Permit held = scheduler.acquire("alice");
+        assertThrows(QuotaExceededException.class, () -> scheduler.acquire("alice")); // no slot
+        held.close();
+        // without the refund, the burst of 2 would be used up by now
+        assertDoesNotThrow(() -> scheduler.acquire("alice").close());
+    }
+
+    // per-client bursts never add up to more than the global budget
+    @Test
+    void globalBucket_capsTheSumOverClients() {
+        UpstreamQuotaScheduler scheduler = new UpstreamQuotaScheduler(registry, true, 60, 5, 2, 10, 0, 60_000, 100, "");
+
+        scheduler.acquire("alice").close();
+        scheduler.acquire("bob").close();
+        assertThrows(QuotaExceededException.class, () -> scheduler.acquire("carol"));
+    }
+
+    // a fresh, unconfigured API key gets no burst; a configured one does
+    @Test
+    void unconfiguredApiKey_getsNoBurst() {
+        UpstreamQuotaScheduler scheduler = scheduler(3, 10, "key:0a1b2c3d4e5f=1");
+
+        scheduler.acquire("key:ffffffffffff").close();
+        assertThrows(QuotaExceededException.class, () -> scheduler.acquire("key:ffffffffffff"));
+        scheduler.acquire("key:0a1b2c3d4e5f").close();
+        assertDoesNotThrow(() -> scheduler.acquire("key:0a1b2c3d4e5f").close());
+    }
+
+    // reserve hands the wait to the caller instead of sleeping
+    @Test
+    void reserve_returnsTheWaitWithoutBlocking() {
+        UpstreamQuotaScheduler scheduler = new UpstreamQuotaScheduler(registry, true, 60, 1, 10, 10, 60_000, 60_000, 100, "");
+
+        assertEquals(Duration.ZERO, scheduler.reserve("alice").delay());
+        long start = System.nanoTime();
+        Duration delay = scheduler.reserve("alice").delay();
+
+        assertTrue(delay.toMillis() > 500 && delay.toMillis() <= 1_000, "delay " + delay);
+        assertTrue(System.nanoTime() - start < 500_000_000L);
+    }
+
+    @Test
+    void parseWeights_ignoresMalformedEntries() {
+        assertEquals(2, UpstreamQuotaScheduler.parseWeights("a=2,b=x,=3,c=0.5,d").size());
+    }
+}
@@ -0,0 +1,64 @@
+package com.github.popularityscore.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for CachingJwtDecoder: the delegate (signature verification + claim parsing)
+ * must run once per token while the token is valid, and never be bypassed once it expired.
+ */
+class CachingJwtDecoderTest {
+
+    private static Jwt jwt(String token, Instant expiresAt) {
+        return Jwt.withTokenValue(token)
+                .header("alg", "RS256")
+                .subject("psa")
+                .issuedAt(Instant.now().minusSeconds(60))
+                .expiresAt(expiresAt)
+                .build();
+    }
+
+    @Test
+    void decode_reusedToken_hitsDelegateOnce() {
+        JwtDecoder delegate = mock(JwtDecoder.class);
+        Jwt valid = jwt("token-a", Instant.now().plusSeconds(600));
+        when(delegate.decode("token-a")).thenReturn(valid);
+        CachingJwtDecoder decoder = new CachingJwtDecoder(delegate, 100, Duration.ofMinutes(5));
+
+        for (int i = 0; i < 5; i++) {
+            assertSame(valid, decoder.decode("token-a"));
+        }
+        verify(delegate, times(1)).decode("token-a");
+    }
+
+    @Test
+    void decode_expiredToken_isNotServedFromCache() {
+        JwtDecoder delegate = mock(JwtDecoder.class);
+        when(delegate.decode("token-b")).thenReturn(jwt("token-b", Instant.now().minusSeconds(1)));
+        CachingJwtDecoder decoder = new CachingJwtDecoder(delegate, 100, Duration.ofMinutes(5));
+
+        decoder.decode("token-b");
+        decoder.decode("token-b");
+
+        verify(delegate, times(2)).decode("token-b");
+    }
+
+    @Test
+    void decode_invalidToken_isNotCached() {
+        JwtDecoder delegate = mock(JwtDecoder.class);
+        when(delegate.decode("bad")).thenThrow(new BadJwtException("signature mismatch"));
+        CachingJwtDecoder decoder = new CachingJwtDecoder(delegate, 100, Duration.ofMinutes(5));
+
+        assertThrows(BadJwtException.class, () -> decoder.decode("bad"));
+        assertThrows(BadJwtException.class, () -> decoder.decode("bad"));
+        verify(delegate, times(2)).decode("bad");
+    }
+}
@@ -0,0 +1,83 @@
+package com.github.popularityscore.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.popularityscore.exception.InvalidCursorException;
+import com.github.popularityscore.model.GitHubRepositoryData;
+import com.github.popularityscore.service.BulkExportService.Format;
+import com.github.popularityscore.store.RepositoryIds;
+import com.github.popularityscore.store.ScoredRepositoryStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for BulkExportService.
+ * Five Java repositories repo-0..repo-4 with raw scores 0..4, updated in months 01..05 of 2024.
+ */
+class BulkExportServiceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private BulkExportService service;
+
+    @BeforeEach
+    void setUp() {
+        ScoredRepositoryStore store = new ScoredRepositoryStore(new RepositoryIds(), 1_000);
+        for (int i = 0; i < 5; i++) {
+            String name = i == 2 ? "repo, \"two\"" : "repo-" + i;
+            store.put(new GitHubRepositoryData(name, "owner/" + name, "https://github.com/owner/" + name,
+                    100 * i, 10 * i, "2024-0" + (i + 1) + "-15T12:00:00Z", "Java"), i);
+        }
+        service = new BulkExportService(store);
+    }
+
+    @Test
+    void ndjson_inRankingOrder_andResumableFromAnyRow() throws IOException {
+        List<JsonNode> all = ndjson(export(null, null, null, Format.NDJSON));
+        assertEquals(5, all.size());
+        assertEquals("owner/repo-4", all.get(0).get("fullName").asText());
+        assertEquals(4.0, all.get(0).get("rawScore").asDouble());
+
+        // resume after the second row, as after a dropped connection
+        List<JsonNode> rest = ndjson(export(null, null, all.get(1).get("cursor").asText(), Format.NDJSON));
+        assertEquals(3, rest.size());
+        assertEquals(all.get(2).get("fullName").asText(), rest.get(0).get("fullName").asText());
+    }
+
+    @Test
+    void csv_quotesSpecialCharacters_andFiltersByUpdatedRange() throws IOException {
+        String[] lines = export("2024-02-01", "2024-04-01", null, Format.CSV).split("\n");
+
+        assertEquals(BulkExportService.CSV_HEADER, lines[0]);
+        assertEquals(3, lines.length); // header + months 02 and 03
+        assertTrue(lines[1].startsWith("\"owner/repo, \"\"two\"\"\",\"repo, \"\"two\"\"\","), lines[1]);
+        assertTrue(lines[2].startsWith("owner/repo-1,"));
+    }
+
+    @Test
+    void decode_rejectsForeignCursor() {
+        assertNull(BulkExportService.decode(" "));
+        assertThrows(InvalidCursorException.class, () -> BulkExportService.decode("not-a-cursor"));
+    }
+
+    private String export(String after, String before, String cursor, Format format) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.export("Java", after, before, BulkExportService.decode(cursor), format, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private List<JsonNode> ndjson(String body) throws IOException {
+        List<JsonNode> rows = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            if (!line.isBlank()) rows.add(objectMapper.readTree(line));
+        }
+        return rows;
+    }
+}
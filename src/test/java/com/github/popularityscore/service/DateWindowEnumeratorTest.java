@@ -0,0 +1,119 @@
+package com.github.popularityscore.service;
+
+import com.github.popularityscore.client.RestTemplateClient;
+import com.github.popularityscore.exception.EnumerationLimitException;
+import com.github.popularityscore.model.GitHubRepositoryData;
+import com.github.popularityscore.model.GitHubSearchResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for DateWindowEnumerator.
+ * The full range 2024-01-01..2024-01-04 reports 1500 results, so it must be split into
+ * 2024-01-01..2024-01-02 (700) and 2024-01-03..2024-01-04 (800). The single day 2024-01-05 reports
+ * 1500 and must be split into its two halves by datetime.
+ */
+class DateWindowEnumeratorTest {
+
+    private static final String FULL = "language:Java created:2024-01-01..2024-01-04";
+    private static final String LEFT = "language:Java created:2024-01-01..2024-01-02";
+    private static final String RIGHT = "language:Java created:2024-01-03..2024-01-04";
+    private static final String DAY = "language:Java created:2024-01-05..2024-01-05";
+    private static final String MORNING = "language:Java created:2024-01-05T00:00:00Z..2024-01-05T11:59:59Z";
+    private static final String AFTERNOON = "language:Java created:2024-01-05T12:00:00Z..2024-01-05T23:59:59Z";
+
+    private RestTemplateClient client;
+    private DateWindowEnumerator enumerator;
+
+    @BeforeEach
+    void setUp() {
+        client = mock(RestTemplateClient.class);
+        enumerator = new DateWindowEnumerator(client, 4, 64, 300, 10_000);
+
+        // responses are built up front: stubbing from worker threads is not thread-safe
+        Map<String, GitHubSearchResponse> firstPages = Map.of(
+                FULL, page(1500), LEFT, page(700), RIGHT, page(800),
+                DAY, page(1500), MORNING, page(600), AFTERNOON, page(900));
+        GitHubSearchResponse laterPage = page(0);
+        when(client.searchRepositories(anyString(), anyInt(), anyInt())).thenAnswer(inv -> {
+            int pageNo = inv.getArgument(1);
+            return pageNo == 1 ? firstPages.get(inv.<String>getArgument(0)) : laterPage;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        enumerator.shutdown();
+    }
+
+    // Over-cap range is bisected; every window is drained, first pages of leaf windows are reused
+    @Test
+    void enumerate_bisectsOverCapRange_andFetchesAllPages() {
+        AtomicInteger pagesSeen = new AtomicInteger();
+
+        enumerator.enumerate("Java", LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 4),
+                page -> pagesSeen.incrementAndGet());
+
+        // 7 pages for LEFT + 8 pages for RIGHT; the over-cap FULL probe is not emitted
+        assertEquals(15, pagesSeen.get());
+        verify(client).searchRepositories(eq(FULL), eq(1), eq(100));
+        verify(client).searchRepositories(eq(LEFT), eq(1), eq(100));
+        verify(client).searchRepositories(eq(RIGHT), eq(1), eq(100));
+        verify(client, never()).searchRepositories(eq(FULL), eq(2), anyInt());
+        verify(client, times(6)).searchRepositories(eq(LEFT), intThat(p -> p > 1), eq(100));
+        verify(client, times(7)).searchRepositories(eq(RIGHT), intThat(p -> p > 1), eq(100));
+    }
+
+    // A single day over the cap is split further by datetime instead of being truncated
+    @Test
+    void enumerate_overCapDay_bisectsIntoDatetimeWindows() {
+        AtomicInteger pagesSeen = new AtomicInteger();
+
+        enumerator.enumerate("Java", LocalDate.of(2024, 1, 5), LocalDate.of(2024, 1, 5),
+                page -> pagesSeen.incrementAndGet());
+
+        assertEquals(15, pagesSeen.get()); // 6 + 9
+        verify(client, times(5)).searchRepositories(eq(MORNING), intThat(p -> p > 1), eq(100));
+        verify(client, times(8)).searchRepositories(eq(AFTERNOON), intThat(p -> p > 1), eq(100));
+    }
+
+    // More calls than max-calls fails instead of returning a partial ranking
+    @Test
+    void enumerate_beyondCallLimit_fails() {
+        DateWindowEnumerator limited = new DateWindowEnumerator(client, 4, 64, 10, 10_000);
+        try {
+            assertThrows(EnumerationLimitException.class, () -> limited.enumerate("Java",
+                    LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 4), page -> { }));
+        } finally {
+            limited.shutdown();
+        }
+    }
+
+    // Empty range (created_after == today) makes no upstream call
+    @Test
+    void enumerate_emptyRange_makesNoCalls() {
+        enumerator.enumerate("Java", LocalDate.of(2024, 1, 5), LocalDate.of(2024, 1, 4), page -> { });
+
+        verifyNoInteractions(client);
+    }
+
+    private static GitHubSearchResponse page(int totalCount) {
+        GitHubSearchResponse response = mock(GitHubSearchResponse.class);
+        when(response.getTotalCount()).thenReturn(totalCount);
+        when(response.getItems()).thenReturn(List.of(mock(GitHubRepositoryData.class)));
+        return response;
+    }
+}
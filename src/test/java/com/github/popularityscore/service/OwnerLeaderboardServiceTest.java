@@ -0,0 +1,80 @@
+package com.github.popularityscore.service;
+
+import com.github.popularityscore.model.GitHubRepositoryData;
+import com.github.popularityscore.model.OwnerLeaderboardResponse;
+import com.github.popularityscore.service.OwnerLeaderboardService.Aggregate;
+import com.github.popularityscore.store.RepositoryIds;
+import com.github.popularityscore.store.ScoredRepositoryStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for OwnerLeaderboardService.
+ * 20,000 stored repositories (several fork-join leaves) over 50 owners; repository i belongs to
+ * owner-(i % 50) and has raw score i / 1000.
+ */
+class OwnerLeaderboardServiceTest {
+
+    private static final int REPOS = 20_000;
+    private static final int OWNERS = 50;
+
+    private ScoredRepositoryStore store;
+    private RepositorySearchService searchService;
+    private OwnerLeaderboardService service;
+
+    @BeforeEach
+    void setUp() {
+        store = new ScoredRepositoryStore(new RepositoryIds(), 100_000);
+        for (int i = 0; i < REPOS; i++) {
+            store.put(repo("owner-" + (i % OWNERS), "repo-" + i, "Java"), i / 1000.0);
+        }
+        store.put(repo("gopher", "tool", "Go"), 1_000.0);
+        searchService = mock(RepositorySearchService.class);
+        service = new OwnerLeaderboardService(store, searchService);
+    }
+
+    @Test
+    void sum_matchesSequentialAggregation() {
+        List<OwnerLeaderboardResponse> top = service.leaderboard("Java", null, Aggregate.SUM, 3);
+
+        assertEquals(3, top.size());
+        // owner-49 holds repositories 49, 99, ..., 19999: the largest sum
+        assertEquals("owner-49", top.get(0).getOwner());
+        assertEquals(REPOS / OWNERS, top.get(0).getRepositories());
+        double expected = 0;
+        for (int i = 49; i < REPOS; i += OWNERS) expected += i / 1000.0;
+        assertEquals(expected, top.get(0).getScore(), 1e-6);
+        assertEquals(100.0, top.get(0).getNormalizedScore(), 1e-9);
+        assertEquals("owner-48", top.get(1).getOwner());
+    }
+
+    @Test
+    void max_andAllLanguages() {
+        List<OwnerLeaderboardResponse> top = service.leaderboard(null, null, Aggregate.MAX, 2);
+
+        assertEquals("gopher", top.get(0).getOwner());
+        assertEquals(1_000.0, top.get(0).getScore(), 1e-9);
+        assertEquals("owner-49", top.get(1).getOwner());
+        assertEquals(19.999, top.get(1).getScore(), 1e-9);
+        verifyNoInteractions(searchService);
+    }
+
+    @Test
+    void emptyLanguage_runsSearchFirstWhenCreatedAfterGiven() {
+        assertTrue(service.leaderboard("Rust", null, Aggregate.SUM, 10).isEmpty());
+        verifyNoInteractions(searchService);
+
+        service.leaderboard("Rust", "2024-01-01", Aggregate.SUM, 10);
+        verify(searchService).search("Rust", "2024-01-01", 1, 100);
+    }
+
+    private static GitHubRepositoryData repo(String owner, String name, String language) {
+        return new GitHubRepositoryData(name, owner + "/" + name, "https://github.com/" + owner + "/" + name,
+                10, 1, "2024-05-01T00:00:00Z", language);
+    }
+}
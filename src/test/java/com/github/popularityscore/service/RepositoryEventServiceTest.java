@@ -0,0 +1,128 @@
+package com.github.popularityscore.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.popularityscore.exception.InvalidEventException;
+import com.github.popularityscore.exception.WebhookDisabledException;
+import com.github.popularityscore.model.GitHubRepositoryData;
+import com.github.popularityscore.model.ScoringProfile;
+import com.github.popularityscore.store.RepositoryIds;
+import com.github.popularityscore.store.RepositorySnapshotStore;
+import com.github.popularityscore.store.ScoredRepositoryStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Replays src/test/resources/events/recorded-events.ndjson against a store seeded with owner/tracked
+ * (100 stars, 10 forks). Expected after apply: +2 stars (3 added, 1 removed; the legacy watch event that
+ * accompanies a star is not counted), +1 fork, updated_at = push time.
+ */
+class RepositoryEventServiceTest {
+
+    private ScoredRepositoryStore store;
+    private RepositoryEventService service;
+
+    @BeforeEach
+    void setUp() {
+        store = new ScoredRepositoryStore(new RepositoryIds(), 1_000);
+        PopularityScoreService scoring = scoring(store);
+        scoring.score(new GitHubRepositoryData("tracked", "owner/tracked", "https://github.com/owner/tracked",
+                100, 10, "2024-05-01T00:00:00Z", "Java"));
+        service = new RepositoryEventService(new ObjectMapper(), store, scoring, "");
+    }
+
+    @Test
+    void replay_coalescesAndRescoresOnlyTrackedRepositories() throws Exception {
+        double scoreBefore = store.get("owner/tracked").score();
+
+        int accepted;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                Objects.requireNonNull(getClass().getResourceAsStream("/events/recorded-events.ndjson")),
+                StandardCharsets.UTF_8))) {
+            accepted = service.replay(reader);
+        }
+
+        assertEquals(7, accepted);                    // watch and ping are ignored, blank line skipped
+        assertEquals(2, service.pendingRepositories()); // coalesced per repository
+        assertEquals(1, service.applyPending());        // untracked repository has no baseline
+
+        GitHubRepositoryData updated = store.get("owner/tracked").repo();
+        assertEquals(102, updated.getStargazersCount());
+        assertEquals(11, updated.getForksCount());
+        assertEquals("2030-01-02T08:00:00Z", updated.getUpdatedAt());
+        assertTrue(store.get("owner/tracked").score() > scoreBefore);
+        assertNull(store.get("owner/untracked"));
+        assertEquals(0, service.pendingRepositories());
+    }
+
+    @Test
+    void replay_malformedLine_isInvalidEvent() {
+        BufferedReader reader = new BufferedReader(new StringReader("{\"event\":\"star\",\"payload\":{"));
+
+        assertThrows(InvalidEventException.class, () -> service.replay(reader));
+    }
+
+    @Test
+    void accept_withSecret_rejectsBadSignature() {
+        RepositoryEventService signed = new RepositoryEventService(new ObjectMapper(), store,
+                scoring(store), "s3cret");
+        byte[] body = "{\"action\":\"started\",\"repository\":{\"full_name\":\"owner/tracked\"}}".getBytes(StandardCharsets.UTF_8);
+
+        assertThrows(InvalidEventException.class, () -> signed.accept("watch", body, "sha256=00"));
+        assertThrows(InvalidEventException.class, () -> signed.accept("watch", body, null));
+    }
+
+    @Test
+    void accept_withoutSecret_isRefused() {
+        byte[] body = "{\"action\":\"created\",\"repository\":{\"full_name\":\"owner/tracked\"}}".getBytes(StandardCharsets.UTF_8);
+
+        assertThrows(WebhookDisabledException.class, () -> service.accept("star", body, null));
+        assertEquals(0, service.pendingRepositories());
+    }
+
+    // the scheduler and the replay endpoint drain concurrently; no delta may be lost between them
+    @Test
+    void applyPending_concurrentDrains_loseNoDelta() throws Exception {
+        String star = "{\"event\":\"star\",\"payload\":{\"action\":\"created\",\"repository\":{\"full_name\":\"owner/tracked\"}}}";
+        int threads = 4;
+        int perThread = 200;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> drains = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                drains.add(pool.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        service.replay(new BufferedReader(new StringReader(star)));
+                        service.applyPending();
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> drain : drains) drain.get(30, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+        service.applyPending();
+
+        assertEquals(100 + threads * perThread, store.get("owner/tracked").repo().getStargazersCount());
+    }
+
+    private static PopularityScoreService scoring(ScoredRepositoryStore store) {
+        return new PopularityScoreService(
+                new ScoringProfileRegistry(new ScoringProfile("default", 0.6, 0.25, 0.15, 90, 0.0)),
+                List.of(7, 30), new ScoreDistributionService(512, 16), new RepositorySnapshotStore(new RepositoryIds(), 90, 1_000), store);
+    }
+}
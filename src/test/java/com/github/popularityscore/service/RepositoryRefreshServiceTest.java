@@ -0,0 +1,43 @@
+package com.github.popularityscore.service;
+
+import com.github.popularityscore.client.GraphQlStatsClient;
+import com.github.popularityscore.exception.InvalidRepositoryNameException;
+import com.github.popularityscore.quota.UpstreamQuotaScheduler;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the request bounds of RepositoryRefreshService.
+ */
+class RepositoryRefreshServiceTest {
+
+    private final GraphQlStatsClient graphQlStatsClient = mock(GraphQlStatsClient.class);
+    private final UpstreamQuotaScheduler quotaScheduler = mock(UpstreamQuotaScheduler.class);
+    private final RepositoryRefreshService service = new RepositoryRefreshService(graphQlStatsClient,
+            mock(PopularityScoreService.class), quotaScheduler, 2 * GraphQlStatsClient.MAX_BATCH_SIZE);
+
+    @Test
+    void refresh_tooManyNames_isRejectedBeforeAnyUpstreamCall() {
+        List<String> names = IntStream.rangeClosed(0, 2 * GraphQlStatsClient.MAX_BATCH_SIZE)
+                .mapToObj(i -> "owner/repo-" + i).toList();
+
+        assertThrows(InvalidRepositoryNameException.class, () -> service.refresh(names, null));
+        verifyNoInteractions(graphQlStatsClient, quotaScheduler);
+    }
+
+    @Test
+    void refresh_atTheLimit_fetchesInBatches() {
+        when(quotaScheduler.acquire()).thenReturn(UpstreamQuotaScheduler.Permit.NONE);
+        List<String> names = IntStream.range(0, 2 * GraphQlStatsClient.MAX_BATCH_SIZE)
+                .mapToObj(i -> "owner/repo-" + i).toList();
+
+        service.refresh(names, null);
+
+        verify(graphQlStatsClient, times(2)).fetchStats(anyList());
+    }
+}
@@ -0,0 +1,124 @@
+package com.github.popularityscore.service;
+
+import com.github.popularityscore.exception.InvalidDistributionException;
+import com.github.popularityscore.model.GitHubRepositoryData;
+import com.github.popularityscore.store.RepositoryIds;
+import com.github.popularityscore.store.ScoredRepositoryStore;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ScoreDistributionService.
+ * Raw scores 0.00 .. 9.99 are recorded uniformly, so percentiles are easy to predict.
+ * A tolerance of 1.0 (percentage points) absorbs the sketch approximation.
+ */
+class ScoreDistributionServiceTest {
+
+    private static ScoreDistributionService uniform(String language, int from, int to) {
+        ScoreDistributionService service = new ScoreDistributionService(512, 16);
+        for (int i = from; i < to; i++) {
+            service.record(language, i / 100.0);
+        }
+        return service;
+    }
+
+    @Test
+    void rankPercentile_followsRecordedDistribution() {
+        ScoreDistributionService service = uniform("Java", 0, 1000);
+
+        assertEquals(50.0, service.rankPercentile("Java", 5.0), 1.0);
+        assertEquals(90.0, service.rankPercentile("java", 9.0), 1.0); // language key is case-insensitive
+        assertNull(service.rankPercentile("Go", 5.0));
+    }
+
+    @Test
+    void percentileScore_scalesAgainstP99_andCapsAt100() {
+        ScoreDistributionService service = uniform("Java", 0, 1000);
+
+        assertEquals(50.0, service.percentileScore("Java", 4.95), 1.0);
+        assertEquals(100.0, service.percentileScore("Java", 50.0), 1e-9);
+    }
+
+    // Two replicas each saw half the data; combined percentiles match the full distribution
+    @Test
+    void merge_combinesReplicaSketches() {
+        ScoreDistributionService low = uniform("Java", 0, 500);
+        ScoreDistributionService high = uniform("Java", 500, 1000);
+
+        low.merge("replica-b", high.export());
+
+        assertEquals(50.0, low.rankPercentile("Java", 5.0), 1.0);
+        assertEquals(25.0, low.rankPercentile("Java", 2.5), 1.0);
+        assertEquals(50.0, low.percentileScore("Java", 4.95), 1.0); // against the combined p99, ~9.9
+    }
+
+    @Test
+    void merge_sameReplicaTwice_replacesInsteadOfAdding() {
+        ScoreDistributionService low = uniform("Java", 0, 500);
+        Map<String, String> high = uniform("Java", 500, 1000).export();
+
+        low.merge("replica-b", high);
+        low.merge("replica-b", high);
+
+        assertEquals(50.0, low.rankPercentile("Java", 5.0), 1.0);
+        // only local data is exported, so a third replica never sees replica-b's scores twice
+        ScoreDistributionService third = new ScoreDistributionService(512, 16);
+        third.merge("replica-a", low.export());
+        assertEquals(100.0, third.rankPercentile("Java", 5.0), 1.0);
+    }
+
+    @Test
+    void merge_rejectsUndecodableOrOversizedPayloads() {
+        ScoreDistributionService service = new ScoreDistributionService(2, 1);
+
+        assertThrows(InvalidDistributionException.class, () -> service.merge("r", Map.of("Java", "not base64!")));
+        assertThrows(InvalidDistributionException.class, () -> service.merge("r", Map.of("Java", "AAAA")));
+        assertThrows(InvalidDistributionException.class,
+                () -> service.merge("r", Map.of("a", "", "b", "", "c", "")));
+        service.merge("r", uniform("Java", 0, 10).export());
+        assertThrows(InvalidDistributionException.class,
+                () -> service.merge("other", uniform("Java", 0, 10).export()));
+    }
+
+    // the decoder would size its arrays from these header fields, so they are refused before decoding
+    @Test
+    void merge_rejectsHostileSketchHeaders() {
+        ScoreDistributionService service = new ScoreDistributionService(512, 16);
+
+        assertThrows(InvalidDistributionException.class, () -> service.merge("r", Map.of("Java", header(1e9, 0))));
+        assertThrows(InvalidDistributionException.class, () -> service.merge("r", Map.of("Java", header(100, 1_000_000))));
+        assertThrows(InvalidDistributionException.class, () -> service.merge("r", Map.of("Java", header(100, 5)))); // truncated
+        assertThrows(InvalidDistributionException.class,
+                () -> service.merge("r", Map.of("Java", "A".repeat(4 * ScoreDistributionService.MAX_SKETCH_BYTES))));
+        assertDoesNotThrow(() -> service.merge("r", Map.of("Java", header(100, 0))));
+    }
+
+    private static String header(double compression, int centroids) {
+        ByteBuffer buf = ByteBuffer.allocate(ScoreDistributionService.HEADER_BYTES);
+        buf.putInt(ScoreDistributionService.VERBOSE_ENCODING).putDouble(0.0).putDouble(1.0)
+                .putDouble(compression).putInt(centroids);
+        return Base64.getEncoder().encodeToString(buf.array());
+    }
+
+    @Test
+    void rebuild_countsEachStoredRepositoryOnce() {
+        ScoredRepositoryStore store = new ScoredRepositoryStore(new RepositoryIds(), 1_000);
+        ScoreDistributionService service = new ScoreDistributionService(512, 16);
+        for (int i = 0; i < 100; i++) {
+            store.put(new GitHubRepositoryData("r" + i, "o/r" + i, null, 1, 0, "2024-05-01T00:00:00Z", "Java"), i);
+        }
+        for (int poll = 0; poll < 5; poll++) {
+            store.put(new GitHubRepositoryData("r0", "o/r0", null, 1, 0, "2024-05-01T00:00:00Z", "Java"), 0.0);
+            service.record("Java", 0.0); // a duplicate that the rebuild drops
+        }
+
+        service.rebuild(store.entries(null));
+
+        assertEquals(50.0, service.rankPercentile("Java", 49.5), 1.0);
+    }
+}
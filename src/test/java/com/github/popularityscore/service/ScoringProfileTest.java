@@ -0,0 +1,88 @@
+package com.github.popularityscore.service;
+
+import com.github.popularityscore.exception.InvalidScoringProfileException;
+import com.github.popularityscore.model.GitHubRepositoryData;
+import com.github.popularityscore.model.PopularityScoreResponse;
+import com.github.popularityscore.model.ScoringProfile;
+import com.github.popularityscore.store.RepositoryIds;
+import com.github.popularityscore.store.RepositorySnapshotStore;
+import com.github.popularityscore.store.ScoredRepositoryStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for scoring profiles: rescoring from cached components under another profile,
+ * and replacing the default profile at runtime.
+ * "stars/popular" has many stars and few forks, "forks/forked" the reverse.
+ */
+class ScoringProfileTest {
+
+    private static final String UPDATED = OffsetDateTime.now(ZoneOffset.UTC).minusDays(30)
+            .truncatedTo(ChronoUnit.SECONDS).toString();
+
+    private ScoringProfileRegistry registry;
+    private ScoredRepositoryStore store;
+    private PopularityScoreService service;
+
+    @BeforeEach
+    void setUp() {
+        registry = new ScoringProfileRegistry(new ScoringProfile("default", 0.6, 0.25, 0.15, 90, 0.0));
+        store = new ScoredRepositoryStore(new RepositoryIds(), 1_000);
+        service = new PopularityScoreService(registry, List.of(7, 30), new ScoreDistributionService(512, 16),
+                new RepositorySnapshotStore(new RepositoryIds(), 90, 1_000), store);
+        service.score(repo("stars/popular", 50_000, 100));
+        service.score(repo("forks/forked", 500, 20_000));
+    }
+
+    @Test
+    void defaultProfile_matchesTheConfiguredFormula() {
+        double expected = 0.6 * Math.log10(1 + 50_000) + 0.25 * Math.log10(1 + 100)
+                + 0.15 * Math.exp(-Math.log(2) * 30 / 90);
+        assertEquals(expected, store.get("stars/popular").score(), 1e-9);
+    }
+
+    @Test
+    void rankStored_underAnotherProfile_reordersWithoutTouchingTheStore() {
+        ScoringProfile forksOnly = registry.put("forks-only", new ScoringProfile(null, 0.0, 1.0, 0.0, 90, 0.0));
+        double storedBefore = store.get("stars/popular").score();
+
+        List<PopularityScoreResponse> ranked = service.rankStored("Java", 10, forksOnly);
+
+        assertEquals("forks/forked", ranked.get(0).getFullName());
+        assertEquals(Math.log10(1 + 20_000), ranked.get(0).getRawScore(), 1e-9);
+        assertNull(ranked.get(0).getRankPercentile()); // distributions hold default-profile scores
+        assertEquals(storedBefore, store.get("stars/popular").score());
+        assertEquals("stars/popular", service.rankStored("Java", 10, registry.defaultProfile()).get(0).getFullName());
+    }
+
+    @Test
+    void replacingDefault_rescoresTheStore() {
+        registry.put("default", new ScoringProfile(null, 0.0, 1.0, 0.0, 90, 0.0));
+
+        assertEquals(2, service.rescoreStored());
+        assertEquals(Math.log10(1 + 20_000), store.get("forks/forked").score(), 1e-9);
+        assertEquals("forks/forked", store.top("Java", 1).get(0).repo().getFullName());
+    }
+
+    @Test
+    void registry_rejectsUnknownInvalidAndDefaultRemoval() {
+        assertThrows(InvalidScoringProfileException.class, () -> registry.get("missing"));
+        assertThrows(InvalidScoringProfileException.class,
+                () -> registry.put("bad", new ScoringProfile(null, 1, 1, 1, 0, 0)));
+        assertThrows(InvalidScoringProfileException.class, () -> registry.remove("default"));
+        assertEquals("default", registry.resolve(null).name()); // no profile parameter
+        assertEquals("default", registry.resolve(" ").name());
+    }
+
+    private static GitHubRepositoryData repo(String fullName, int stars, int forks) {
+        return new GitHubRepositoryData(fullName.substring(fullName.indexOf('/') + 1), fullName,
+                "https://github.com/" + fullName, stars, forks, UPDATED, "Java");
+    }
+}
@@ -0,0 +1,150 @@
+package com.github.popularityscore.service;
+
+import com.github.popularityscore.client.RestTemplateClient;
+import com.github.popularityscore.exception.GitHubTimeoutException;
+import com.github.popularityscore.model.GitHubRepositoryData;
+import com.github.popularityscore.model.GitHubSearchResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for SearchRequestBatcher.
+ * A 200 ms window makes two requests submitted back to back land in the same batch.
+ */
+class SearchRequestBatcherTest {
+
+    private static final String CREATED_AFTER = "2024-01-01";
+
+    private RestTemplateClient client;
+    private SearchRequestBatcher batcher;
+
+    @BeforeEach
+    void setUp() {
+        client = mock(RestTemplateClient.class);
+        batcher = new SearchRequestBatcher(client, 200, 5, 2, 5_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        batcher.shutdown();
+    }
+
+    // Java + Go in one window → one combined query, items split back by language
+    @Test
+    void concurrentLanguages_areMergedIntoOneQuery() {
+        List<GitHubRepositoryData> combined = new ArrayList<>(repos("Java", 10));
+        combined.addAll(repos("Go", 10));
+        GitHubSearchResponse response = response(5000, combined);
+        when(client.searchRepositories(argThat(q -> q.contains("language:Java") && q.contains("language:Go")), eq(1), eq(100)))
+                .thenReturn(response);
+
+        CompletableFuture<List<GitHubRepositoryData>> java =
+                CompletableFuture.supplyAsync(() -> batcher.searchFirstPage("Java", CREATED_AFTER, 10));
+        CompletableFuture<List<GitHubRepositoryData>> go =
+                CompletableFuture.supplyAsync(() -> batcher.searchFirstPage("Go", CREATED_AFTER, 10));
+
+        assertEquals(10, java.join().size());
+        assertEquals("Java", java.join().get(0).getLanguage());
+        assertEquals(10, go.join().size());
+        assertEquals("Go", go.join().get(0).getLanguage());
+        verify(client, times(1)).searchRepositories(anyString(), anyInt(), anyInt());
+        assertEquals(0.5, batcher.upstreamCallsPerRequest(), 1e-9);
+    }
+
+    // Combined top-100 holds too few Go repos (and is not exhaustive) → Go falls back to its own query
+    @Test
+    void underfilledLanguage_fallsBackToSingleQuery() {
+        List<GitHubRepositoryData> combined = new ArrayList<>(repos("Java", 97));
+        combined.addAll(repos("Go", 3));
+        GitHubSearchResponse merged = response(5000, combined);
+        GitHubSearchResponse goOnly = response(800, repos("Go", 10));
+        when(client.searchRepositories(argThat(q -> q.contains("language:Java") && q.contains("language:Go")), eq(1), eq(100)))
+                .thenReturn(merged);
+        when(client.searchRepositories(eq("language:Go created:>" + CREATED_AFTER), eq(1), eq(10)))
+                .thenReturn(goOnly);
+
+        CompletableFuture<List<GitHubRepositoryData>> java =
+                CompletableFuture.supplyAsync(() -> batcher.searchFirstPage("Java", CREATED_AFTER, 10));
+        CompletableFuture<List<GitHubRepositoryData>> go =
+                CompletableFuture.supplyAsync(() -> batcher.searchFirstPage("Go", CREATED_AFTER, 10));
+
+        assertEquals(10, java.join().size());
+        assertEquals(10, go.join().size());
+        verify(client).searchRepositories(eq("language:Go created:>" + CREATED_AFTER), eq(1), eq(10));
+        verify(client, times(2)).searchRepositories(anyString(), anyInt(), anyInt());
+    }
+
+    // An upstream call that never answers fails the caller after timeout-ms instead of parking it
+    @Test
+    void hangingUpstream_timesOutTheCaller() {
+        CountDownLatch release = new CountDownLatch(1);
+        GitHubSearchResponse empty = response(0, List.of());
+        when(client.searchRepositories(anyString(), anyInt(), anyInt())).thenAnswer(inv -> {
+            release.await();
+            return empty;
+        });
+        SearchRequestBatcher shortTimeout = new SearchRequestBatcher(client, 5, 5, 2, 100);
+        try {
+            assertTimeoutPreemptively(Duration.ofSeconds(5), () ->
+                    assertThrows(GitHubTimeoutException.class, () -> shortTimeout.searchFirstPage("Java", CREATED_AFTER, 10)));
+        } finally {
+            release.countDown();
+            shortTimeout.shutdown();
+        }
+    }
+
+    // Shutting down fails every waiting caller at once
+    @Test
+    void shutdown_failsWaitingCallers() throws Exception {
+        CountDownLatch called = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        GitHubSearchResponse empty = response(0, List.of());
+        when(client.searchRepositories(anyString(), anyInt(), anyInt())).thenAnswer(inv -> {
+            called.countDown();
+            release.await();
+            return empty;
+        });
+        CompletableFuture<List<GitHubRepositoryData>> java =
+                CompletableFuture.supplyAsync(() -> batcher.searchFirstPage("Java", CREATED_AFTER, 10));
+        assertTrue(called.await(5, TimeUnit.SECONDS));
+
+        batcher.shutdown();
+
+        ExecutionException failed = assertThrows(ExecutionException.class, () -> java.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, failed.getCause());
+        release.countDown();
+        assertThrows(IllegalStateException.class, () -> batcher.searchFirstPage("Go", CREATED_AFTER, 10));
+    }
+
+    private static List<GitHubRepositoryData> repos(String language, int count) {
+        return IntStream.range(0, count).mapToObj(i -> {
+            GitHubRepositoryData repo = mock(GitHubRepositoryData.class);
+            when(repo.getLanguage()).thenReturn(language);
+            return repo;
+        }).toList();
+    }
+
+    private static GitHubSearchResponse response(int totalCount, List<GitHubRepositoryData> items) {
+        GitHubSearchResponse response = mock(GitHubSearchResponse.class);
+        when(response.getTotalCount()).thenReturn(totalCount);
+        when(response.getItems()).thenReturn(items);
+        return response;
+    }
+}
@@ -0,0 +1,73 @@
+package com.github.popularityscore.store;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for RepositorySnapshotStore / SnapshotSeries.
+ * The repository gains 10 stars per day starting at 1,000 on day 20,000.
+ */
+class RepositorySnapshotStoreTest {
+
+    private static final String REPO = "owner/repo";
+    private static final int DAY0 = 20_000;
+
+    private static RepositorySnapshotStore storeWithDays(int retentionDays, int days) {
+        RepositorySnapshotStore store = new RepositorySnapshotStore(new RepositoryIds(), retentionDays, 1_000);
+        for (int d = 0; d < days; d++) {
+            store.record(REPO, DAY0 + d, 1_000 + 10 * d, 50 + d);
+        }
+        return store;
+    }
+
+    @Test
+    void starsPerDay_overWindow() {
+        RepositorySnapshotStore store = storeWithDays(90, 60);
+
+        assertEquals(10.0, store.starsPerDay(REPO, 7), 1e-9);
+        assertEquals(10.0, store.starsPerDay(REPO, 30), 1e-9);
+        // history shorter than the window → measured from the oldest snapshot
+        assertEquals(10.0, store.starsPerDay(REPO, 365), 1e-9);
+    }
+
+    @Test
+    void starsPerDay_unknownOrSingleSnapshot_isZero() {
+        RepositorySnapshotStore store = new RepositorySnapshotStore(new RepositoryIds(), 90, 1_000);
+        store.record(REPO, DAY0, 500, 5);
+
+        assertEquals(0.0, store.starsPerDay(REPO, 7), 1e-9);
+        assertEquals(0.0, store.starsPerDay("other/repo", 7), 1e-9);
+    }
+
+    // Same-day snapshots replace each other instead of adding entries
+    @Test
+    void record_sameDay_replacesSnapshot() {
+        RepositorySnapshotStore store = new RepositorySnapshotStore(new RepositoryIds(), 90, 1_000);
+        store.record(REPO, DAY0, 100, 1);
+        store.record(REPO, DAY0 + 7, 150, 1);
+        store.record(REPO, DAY0 + 7, 170, 1);
+
+        assertEquals(10.0, store.starsPerDay(REPO, 7), 1e-9);
+    }
+
+    // Retention trims old snapshots so encoded size stays bounded; momentum is unaffected
+    @Test
+    void retention_boundsEncodedSize() {
+        RepositorySnapshotStore store = storeWithDays(30, 400);
+
+        assertEquals(10.0, store.starsPerDay(REPO, 7), 1e-9);
+        assertTrue(store.encodedBytes() < 400, "encoded bytes = " + store.encodedBytes());
+    }
+
+    @Test
+    void maxRepositories_limitsTracking() {
+        RepositorySnapshotStore store = new RepositorySnapshotStore(new RepositoryIds(), 90, 2);
+        store.record("a/a", DAY0, 1, 1);
+        store.record("b/b", DAY0, 1, 1);
+        store.record("c/c", DAY0, 1, 1);
+
+        assertEquals(2, store.trackedRepositories());
+    }
+}
@@ -0,0 +1,121 @@
+package com.github.popularityscore.store;
+
+import com.github.popularityscore.model.GitHubRepositoryData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Iterator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the compact repository identity in ScoredRepositoryStore:
+ * owner id + arena name in, the same name / fullName / htmlUrl out.
+ */
+class ScoredRepositoryStoreTest {
+
+    private ScoredRepositoryStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new ScoredRepositoryStore(new RepositoryIds(), 100_000);
+    }
+
+    @Test
+    void repo_rebuildsIdentityFromOwnerIdAndArena() {
+        store.put(repo("octo/hello-world", "https://github.com/octo/hello-world"), 1.0);
+        store.put(repo("octo/spoon-knife", "https://ghe.example.com/octo/spoon-knife"), 2.0);
+
+        GitHubRepositoryData hello = store.get("octo/hello-world").repo();
+        assertEquals("hello-world", hello.getName());
+        assertEquals("octo/hello-world", hello.getFullName());
+        assertEquals("https://github.com/octo/hello-world", hello.getHtmlUrl());
+        assertEquals("https://ghe.example.com/octo/spoon-knife", store.get("octo/spoon-knife").repo().getHtmlUrl());
+        assertEquals(store.get("octo/hello-world").ownerId(), store.get("octo/spoon-knife").ownerId());
+    }
+
+    @Test
+    void update_keepsIdentityAndMovesInRanking() {
+        store.put(repo("a/first", null), 1.0);
+        store.put(repo("b/second", null), 2.0);
+        long arenaBytes = store.nameBytes();
+
+        store.put(repo("a/first", null), 3.0);
+
+        assertEquals(arenaBytes, store.nameBytes()); // the name is not stored twice
+        assertEquals("a/first", store.top("Java", 1).get(0).fullName());
+        assertEquals(2, store.size());
+    }
+
+    @Test
+    void rescore_replacesScoresInPlaceAndReorders() {
+        store.put(repo("a/first", null), 1.0);
+        store.put(repo("b/second", "https://ghe.example.com/b/second"), 2.0);
+
+        assertEquals(2, store.rescore(e -> -e.score()));
+
+        assertEquals("a/first", store.top("Java", 1).get(0).fullName());
+        assertEquals(-2.0, store.get("b/second").score(), 1e-9);
+        assertEquals("https://ghe.example.com/b/second", store.get("b/second").repo().getHtmlUrl());
+        assertEquals(2, store.entries("Java").length);
+    }
+
+    @Test
+    void iterate_resumesAfterCursorPosition() {
+        for (int i = 0; i < 5; i++) store.put(repo("owner/repo-" + i, null), i);
+
+        Iterator<ScoredRepositoryStore.Entry> rest = store.iterate("Java", 3.0, "owner/repo-3");
+
+        assertEquals("owner/repo-2", rest.next().fullName());
+        assertEquals("owner/repo-1", rest.next().fullName());
+        // unknown repository: resume below its score
+        assertEquals("owner/repo-1", store.iterate("Java", 2.0, "gone/repo").next().fullName());
+    }
+
+    @Test
+    void arena_spansChunksAndOddNames() {
+        int count = 20_000; // ~230 KB of names, several 64 KiB chunks
+        for (int i = 0; i < count; i++) store.put(repo("owner-" + (i % 97) + "/r\u00e9po-" + i, null), i);
+        store.put(repo("no-owner-part", null), -1.0);
+
+        assertEquals("owner-42/r\u00e9po-19830", store.get("owner-42/r\u00e9po-19830").fullName());
+        assertEquals("r\u00e9po-0", store.get("owner-0/r\u00e9po-0").repo().getName());
+        assertEquals("no-owner-part", store.get("no-owner-part").fullName());
+        assertTrue(store.nameBytes() > 65_536);
+    }
+
+    @Test
+    void ids_internNamesOnceAcrossOwnersAndStores() {
+        RepositoryIds ids = new RepositoryIds();
+        ScoredRepositoryStore first = new ScoredRepositoryStore(ids, 10);
+        RepositorySnapshotStore snapshots = new RepositorySnapshotStore(ids, 90, 10);
+
+        first.put(repo("alice/docs", null), 1.0);
+        long bytes = ids.nameBytes();
+        first.put(repo("bob/docs", null), 2.0);       // "docs" is already in the arena
+        snapshots.record("alice/docs", 10, 1);
+
+        assertEquals(bytes, ids.nameBytes());
+        assertEquals("bob/docs", first.get("bob/docs").fullName());
+        assertNull(first.get("carol/docs"));
+        assertEquals(-1, ids.find("carol/docs"));
+    }
+
+    @Test
+    void put_whenFull_updatesKnownRepositoriesOnly() {
+        ScoredRepositoryStore small = new ScoredRepositoryStore(new RepositoryIds(), 2);
+        small.put(repo("a/one", null), 1.0);
+        small.put(repo("a/two", null), 2.0);
+
+        assertFalse(small.put(repo("a/three", null), 3.0));
+        assertNull(small.get("a/three"));
+        small.put(repo("a/one", null), 5.0);
+        assertEquals(5.0, small.get("a/one").score(), 1e-9);
+        assertEquals(2, small.size());
+    }
+
+    private static GitHubRepositoryData repo(String fullName, String htmlUrl) {
+        return new GitHubRepositoryData(fullName.substring(fullName.indexOf('/') + 1), fullName, htmlUrl,
+                10, 1, "2024-05-01T00:00:00Z", "Java");
+    }
+}